@@ -1,25 +1,36 @@
-import { Injectable } from '@angular/core';
-import { HttpRequest, HttpHandler, HttpEvent, HttpInterceptor } from '@angular/common/http';
-import { Observable } from 'rxjs';
+import { inject } from '@angular/core';
+import { HttpErrorResponse, HttpInterceptorFn, HttpRequest } from '@angular/common/http';
+import { catchError, switchMap, throwError } from 'rxjs';
 import { AuthService } from '../services/auth.service';
 
-@Injectable()
-export class JwtInterceptor implements HttpInterceptor {
-  constructor(private authService: AuthService) {}
+const withToken = (req: HttpRequest<unknown>, token: string) =>
+  req.clone({ setHeaders: { Authorization: `Bearer ${token}` } });
 
-  intercept(request: HttpRequest<any>, next: HttpHandler): Observable<HttpEvent<any>> {
-    const currentUser = this.authService.currentUserValue;
-    const isLoggedIn = currentUser && currentUser.token;
-    const isApiUrl = request.url.startsWith('http://localhost:8080');
+/**
+ * Adds the access token to API requests. Access tokens are short-lived: on a 401 the token is renewed
+ * through /api/auth/refresh and the request is retried once; when the refresh fails the user is logged out.
+ */
+export const jwtInterceptor: HttpInterceptorFn = (req, next) => {
+  const authService = inject(AuthService);
+  const token = authService.getToken();
 
-    if (isLoggedIn && isApiUrl) {
-      request = request.clone({
-        setHeaders: {
-          Authorization: `Bearer ${currentUser.token}`
-        }
-      });
-    }
-
-    return next.handle(request);
+  // Apply JWT to API requests (check for api path instead of hostname); auth calls go out as they are
+  if (!token || !req.url.includes('/api/') || req.url.includes('/api/auth/')) {
+    return next(req);
   }
-}
\ No newline at end of file
+
+  return next(withToken(req, token)).pipe(
+    catchError(error => {
+      if (!(error instanceof HttpErrorResponse) || error.status !== 401) {
+        return throwError(() => error);
+      }
+      return authService.refresh().pipe(
+        catchError(refreshError => {
+          authService.logout();
+          return throwError(() => refreshError);
+        }),
+        switchMap(newToken => next(withToken(req, newToken)))
+      );
+    })
+  );
+};
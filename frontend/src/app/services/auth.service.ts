@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
-import { Observable, BehaviorSubject } from 'rxjs';
-import { map } from 'rxjs/operators';
+import { Observable, BehaviorSubject, throwError } from 'rxjs';
+import { finalize, map, shareReplay } from 'rxjs/operators';
 import { environment } from '../../environments/environment';
 
 export interface LoginRequest {
@@ -13,6 +13,8 @@ export interface JwtResponse {
   token: string;
   type: string;
   username: string;
+  refreshToken: string;
+  expiresIn: number;
 }
 
 @Injectable({
@@ -22,6 +24,8 @@ export class AuthService {
   private apiUrl = environment.apiURL + '/api/auth';
   private currentUserSubject: BehaviorSubject<any>;
   public currentUser: Observable<any>;
+  // A refresh token can be rotated only once, so concurrent 401s share one refresh call
+  private refreshInFlight: Observable<string> | null = null;
 
   constructor(private http: HttpClient) {
     this.currentUserSubject = new BehaviorSubject<any>(JSON.parse(localStorage.getItem('currentUser') || 'null'));
@@ -34,16 +38,39 @@ export class AuthService {
 
   login(loginRequest: LoginRequest): Observable<any> {
     return this.http.post<JwtResponse>(`${this.apiUrl}/login`, loginRequest)
-      .pipe(map(response => {
-        const user = {
-          username: response.username,
-          token: response.token,
-          type: response.type
-        };
-        localStorage.setItem('currentUser', JSON.stringify(user));
-        this.currentUserSubject.next(user);
-        return user;
-      }));
+      .pipe(map(response => this.storeUser(response)));
+  }
+
+  /**
+   * Exchanges the stored refresh token for a new access token (and a new refresh token).
+   * Emits the new access token.
+   */
+  refresh(): Observable<string> {
+    const refreshToken = this.currentUserValue?.refreshToken;
+    if (!refreshToken) {
+      return throwError(() => new Error('No refresh token'));
+    }
+    if (!this.refreshInFlight) {
+      this.refreshInFlight = this.http.post<JwtResponse>(`${this.apiUrl}/refresh`, { refreshToken })
+        .pipe(
+          map(response => this.storeUser(response).token),
+          finalize(() => this.refreshInFlight = null),
+          shareReplay(1)
+        );
+    }
+    return this.refreshInFlight;
+  }
+
+  private storeUser(response: JwtResponse) {
+    const user = {
+      username: response.username,
+      token: response.token,
+      type: response.type,
+      refreshToken: response.refreshToken
+    };
+    localStorage.setItem('currentUser', JSON.stringify(user));
+    this.currentUserSubject.next(user);
+    return user;
   }
 
   logout() {
@@ -2,6 +2,7 @@ plugins {
 	java
 	id("org.springframework.boot") version "3.5.5"
 	id("io.spring.dependency-management") version "1.1.7"
+	id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "jb.wrk"
@@ -10,7 +11,7 @@ description = "tribe tech"
 
 java {
 	toolchain {
-		languageVersion = JavaLanguageVersion.of(17)
+		languageVersion = JavaLanguageVersion.of(21)
 	}
 }
 
@@ -25,6 +26,7 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-webflux")
     implementation("org.springframework.boot:spring-boot-starter-validation")
+    implementation("com.github.ben-manes.caffeine:caffeine")
     implementation("io.jsonwebtoken:jjwt-api:0.12.7")
     runtimeOnly("io.jsonwebtoken:jjwt-impl:0.12.7")
     runtimeOnly("io.jsonwebtoken:jjwt-jackson:0.12.7")
@@ -44,8 +46,22 @@ dependencies {
     testImplementation("org.testcontainers:testcontainers:1.20.4") 
     testImplementation("org.awaitility:awaitility:4.2.2")
 	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+
+    // JMH benchmarks (src/jmh), run with ./gradlew jmh
+    jmhImplementation("org.springframework:spring-test")
+    jmhImplementation("org.mockito:mockito-core")
 }
 
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
+
+jmh {
+    // Throughput plus allocation rate per operation, so allocation regressions show up next to speed
+    benchmarkMode = listOf("thrpt")
+    profilers = listOf("gc")
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    resultFormat = "JSON"
+}
@@ -0,0 +1,104 @@
+package jb.wrk.tribe.benchmark;
+
+import jakarta.servlet.FilterChain;
+import jb.wrk.tribe.config.AuthenticationBeansConfiguration;
+import jb.wrk.tribe.demo.components.JwtAuthenticationFilter;
+import jb.wrk.tribe.demo.components.JwtUtils;
+import jb.wrk.tribe.demo.components.UserSecurityStateCache;
+import jb.wrk.tribe.demo.dto.UserSecurityState;
+import jb.wrk.tribe.demo.entities.Role;
+import jb.wrk.tribe.demo.entities.User;
+import jb.wrk.tribe.demo.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmarks the code every authenticated request and every login goes through.
+ * Run with {@code ./gradlew jmh}; the gc profiler adds allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AuthenticationBenchmark {
+
+    private static final String SECRET = "3cfa76ef14937c1c0ea519f8fc057a80fcd04a7420f8e8bcd0a7567c272e007b";
+    private static final String RAW_PASSWORD = "demo123";
+
+    private User user;
+    private JwtUtils jwtUtils;
+    private JwtUtils uncachedJwtUtils;
+    private JwtAuthenticationFilter filter;
+    private PasswordEncoder passwordEncoder;
+    private String encodedPassword;
+    private String token;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final FilterChain noOpChain = (req, res) -> { };
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        user = new User("bench", "bench@example.com", "", Role.USER);
+        jwtUtils = new JwtUtils(SECRET, 86_400_000L, 10_000L);
+        // A zero-sized cache forces the full parse and signature check on every call
+        uncachedJwtUtils = new JwtUtils(SECRET, 86_400_000L, 0L);
+        token = jwtUtils.generateToken(user);
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findSecurityStateByUsername("bench"))
+                .thenReturn(Optional.of(new UserSecurityState("bench", 0L, true, true, true)));
+        UserSecurityStateCache stateCache = new UserSecurityStateCache(userRepository, Duration.ofMinutes(5), 100L);
+        filter = new JwtAuthenticationFilter(jwtUtils, stateCache);
+
+        request = new MockHttpServletRequest("POST", "/api/loans/start");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+
+        // Same encoder and strength as the application uses
+        passwordEncoder = new AuthenticationBeansConfiguration().passwordEncoder();
+        encodedPassword = passwordEncoder.encode(RAW_PASSWORD);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean validateTokenCached() {
+        return jwtUtils.validateToken(token, user);
+    }
+
+    @Benchmark
+    public boolean validateTokenUncached() {
+        return uncachedJwtUtils.validateToken(token, user);
+    }
+
+    @Benchmark
+    public Object authenticationFilter() throws Exception {
+        try {
+            filter.doFilter(request, response, noOpChain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public boolean passwordMatches() {
+        return passwordEncoder.matches(RAW_PASSWORD, encodedPassword);
+    }
+}
@@ -0,0 +1,105 @@
+package jb.wrk.tribe.benchmark;
+
+import io.camunda.zeebe.client.ZeebeClient;
+import io.camunda.zeebe.client.api.worker.JobHandler;
+import io.camunda.zeebe.client.api.worker.JobWorker;
+import jb.wrk.tribe.demo.components.LoanDecisionRules;
+import jb.wrk.tribe.demo.components.LoanProcessService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end latency of one loan application through the sequential and the parallel version of the
+ * loan approval process, with workers that only sleep for the configured check durations. The
+ * sequential process should take about the sum of both checks, the parallel one about the longer of
+ * the two. Needs a running broker at {@code ZEEBE_GATEWAY} (default 127.0.0.1:26500); run
+ * {@code java -jar build/libs/tribe-*-jmh.jar LoanProcessLatencyBenchmark} to keep the sampled
+ * latency mode instead of the build's throughput default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LoanProcessLatencyBenchmark {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    @Param({LoanProcessService.PROCESS_ID, LoanProcessService.PARALLEL_PROCESS_ID})
+    public String bpmnProcessId;
+
+    @Param("50")
+    public long validateDocumentsMillis;
+
+    @Param("100")
+    public long checkCreditMillis;
+
+    private ZeebeClient zeebeClient;
+    private final List<JobWorker> workers = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        zeebeClient = ZeebeClient.newClientBuilder()
+                .gatewayAddress(System.getenv().getOrDefault("ZEEBE_GATEWAY", "127.0.0.1:26500"))
+                .usePlaintext()
+                // Handlers sleep, so the parallel branches need their own threads to overlap
+                .numJobWorkerExecutionThreads(8)
+                .build();
+        zeebeClient.newDeployResourceCommand()
+                .addResourceFromClasspath("loan-approval.bpmn")
+                .addResourceFromClasspath("loan-approval-parallel.bpmn")
+                .send()
+                .join();
+
+        workers.add(worker("validate-docs", validateDocumentsMillis, Map.of("documentsValid", true)));
+        workers.add(worker("check-credit", checkCreditMillis, Map.of()));
+        workers.add(worker("auto-approve", 0, Map.of("approvalStatus", "APPROVED")));
+        workers.add(worker("manual-review", 0, Map.of("approvalStatus", "PENDING_REVIEW")));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        workers.forEach(JobWorker::close);
+        zeebeClient.close();
+    }
+
+    @Benchmark
+    public Object startAndAwaitDecision() {
+        return zeebeClient.newCreateInstanceCommand()
+                .bpmnProcessId(bpmnProcessId)
+                .latestVersion()
+                .variables(Map.of(
+                        "creditScore", 750,
+                        LoanDecisionRules.THRESHOLD_VARIABLE, LoanDecisionRules.AUTO_APPROVE_THRESHOLD))
+                .withResult()
+                .requestTimeout(REQUEST_TIMEOUT)
+                .send()
+                .join();
+    }
+
+    private JobWorker worker(String jobType, long delayMillis, Map<String, Object> result) {
+        JobHandler handler = (client, job) -> {
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+            client.newCompleteCommand(job.getKey()).variables(result).send().join();
+        };
+        return zeebeClient.newWorker()
+                .jobType(jobType)
+                .handler(handler)
+                .maxJobsActive(64)
+                .open();
+    }
+}
@@ -1,12 +1,16 @@
 package jb.wrk.tribe;
 
+import jb.wrk.tribe.config.CreditBureauProperties;
 import jb.wrk.tribe.config.JwtProperties;
+import jb.wrk.tribe.config.ZeebeWorkerProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableConfigurationProperties(JwtProperties.class)
+@EnableConfigurationProperties({JwtProperties.class, ZeebeWorkerProperties.class, CreditBureauProperties.class})
+@EnableScheduling
 public class TribeApplication {
 
 	public static void main(String[] args) {
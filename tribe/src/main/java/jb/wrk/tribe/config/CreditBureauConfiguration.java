@@ -0,0 +1,41 @@
+package jb.wrk.tribe.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jb.wrk.tribe.demo.components.CreditBureauClient;
+import jb.wrk.tribe.demo.components.HttpCreditBureauClient;
+import jb.wrk.tribe.demo.components.ResilientCreditBureauClient;
+import jb.wrk.tribe.demo.components.StubCreditBureauServer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.util.function.Supplier;
+
+@Configuration
+public class CreditBureauConfiguration {
+
+    /**
+     * HTTP bureau client wrapped with timeout, bulkhead and hedging. Without a base URL the local stub
+     * server is used when it is enabled.
+     */
+    @Bean
+    public CreditBureauClient creditBureauClient(CreditBureauProperties properties,
+                                                 ObjectProvider<StubCreditBureauServer> stubServer,
+                                                 ObjectMapper objectMapper,
+                                                 MeterRegistry meterRegistry) {
+        Supplier<URI> baseUri = () -> {
+            if (!properties.getBaseUrl().isBlank()) {
+                return URI.create(properties.getBaseUrl());
+            }
+            StubCreditBureauServer stub = stubServer.getIfAvailable();
+            if (stub == null) {
+                throw new IllegalStateException("No credit bureau configured: set app.credit-bureau.base-url or enable the stub");
+            }
+            return stub.getBaseUri();
+        };
+        HttpCreditBureauClient httpClient = new HttpCreditBureauClient(baseUri, properties.getCallTimeout(), objectMapper);
+        return new ResilientCreditBureauClient(httpClient, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,125 @@
+package jb.wrk.tribe.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Credit bureau connection, resilience and local stub settings.
+ */
+@ConfigurationProperties(prefix = "app.credit-bureau")
+public class CreditBureauProperties {
+    // Empty means "use the local stub server"
+    private String baseUrl = "";
+    private Duration callTimeout = Duration.ofSeconds(2);
+    private int maxConcurrentCalls = 32;
+    private final Hedge hedge = new Hedge();
+    private final Stub stub = new Stub();
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+    public void setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public Duration getCallTimeout() {
+        return callTimeout;
+    }
+    public void setCallTimeout(Duration callTimeout) {
+        this.callTimeout = callTimeout;
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+    public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    public Hedge getHedge() {
+        return hedge;
+    }
+
+    public Stub getStub() {
+        return stub;
+    }
+
+    /**
+     * A second request is sent when the first has not answered within the observed p95 latency,
+     * clamped to [min-delay, call-timeout]; initial-delay is used until there are measurements.
+     */
+    public static class Hedge {
+        private boolean enabled = true;
+        private Duration initialDelay = Duration.ofMillis(200);
+        private Duration minDelay = Duration.ofMillis(50);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getInitialDelay() {
+            return initialDelay;
+        }
+        public void setInitialDelay(Duration initialDelay) {
+            this.initialDelay = initialDelay;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+    }
+
+    /**
+     * Local HTTP stub of the bureau for development and testing. A share of slow answers
+     * (slow-ratio) makes timeouts and hedging observable.
+     */
+    public static class Stub {
+        private boolean enabled = false;
+        private int port = 0;
+        private Duration latency = Duration.ofMillis(50);
+        private Duration slowLatency = Duration.ofSeconds(2);
+        private double slowRatio = 0.05;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getPort() {
+            return port;
+        }
+        public void setPort(int port) {
+            this.port = port;
+        }
+
+        public Duration getLatency() {
+            return latency;
+        }
+        public void setLatency(Duration latency) {
+            this.latency = latency;
+        }
+
+        public Duration getSlowLatency() {
+            return slowLatency;
+        }
+        public void setSlowLatency(Duration slowLatency) {
+            this.slowLatency = slowLatency;
+        }
+
+        public double getSlowRatio() {
+            return slowRatio;
+        }
+        public void setSlowRatio(double slowRatio) {
+            this.slowRatio = slowRatio;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package jb.wrk.tribe.config;
+
+import jb.wrk.tribe.demo.components.JwtReactiveAuthenticationManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.authentication.ServerAuthenticationEntryPointFailureHandler;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import reactor.core.publisher.Mono;
+
+/**
+ * Security for the opt-in "reactive" profile. Mirrors SecurityConfiguration, but JWT authentication
+ * runs as an AuthenticationWebFilter backed by JwtReactiveAuthenticationManager. Password checks and
+ * CORS rules come from AuthenticationBeansConfiguration.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+@Profile("reactive")
+public class ReactiveSecurityConfiguration {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtReactiveAuthenticationManager jwtAuthenticationManager,
+                                                         CorsConfigurationSource corsConfigurationSource) {
+        HttpStatusServerEntryPoint unauthorized = new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED);
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .cors(cors -> cors.configurationSource(corsConfigurationSource))
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(auth -> auth
+                        .pathMatchers("/api/auth/login").permitAll()
+                        .pathMatchers("/api/auth/refresh").permitAll()
+                        .pathMatchers("/actuator/health").permitAll()
+                        .pathMatchers("/error").permitAll()
+                        .anyExchange().authenticated()
+                )
+                .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(unauthorized))
+                .addFilterAt(jwtAuthenticationWebFilter(jwtAuthenticationManager, unauthorized), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    private AuthenticationWebFilter jwtAuthenticationWebFilter(JwtReactiveAuthenticationManager jwtAuthenticationManager,
+                                                               HttpStatusServerEntryPoint unauthorized) {
+        AuthenticationWebFilter filter = new AuthenticationWebFilter(jwtAuthenticationManager);
+        filter.setServerAuthenticationConverter(exchange -> {
+            String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+                return Mono.empty();
+            }
+            String jwt = authHeader.substring(BEARER_PREFIX.length());
+            return Mono.just(UsernamePasswordAuthenticationToken.unauthenticated(null, jwt));
+        });
+        filter.setAuthenticationFailureHandler(new ServerAuthenticationEntryPointFailureHandler(unauthorized));
+        filter.setSecurityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+        return filter;
+    }
+
+    @Bean
+    public CorsConfigurationSource corsConfigurationSource(CorsConfiguration corsConfiguration) {
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", corsConfiguration);
+        return source;
+    }
+
+    // Blocking manager for the login endpoint; PasswordCheckExecutor keeps it off the event loop
+    @Bean
+    public AuthenticationManager authenticationManager(AuthenticationProvider authenticationProvider) {
+        return new ProviderManager(authenticationProvider);
+    }
+}
@@ -25,15 +25,22 @@ public class ZeebeConfig {
     @Value("${camunda.client.startup.enabled:true}")
     private boolean startupEnabled;
 
+    // Platform threads that poll for jobs and run job handlers for all workers of this client; with virtual
+    // threads enabled, ZeebeJobWorkerRegistry hands every job on to its own virtual thread from here
+    @Value("${app.zeebe.workers.execution-threads:1}")
+    private int jobExecutionThreads;
+
     @Bean(destroyMethod = "close")
     public ZeebeClient zeebeClient() {
         ZeebeClientBuilder builder = ZeebeClient.newClientBuilder()
-                .gatewayAddress(gatewayAddress);
+                .gatewayAddress(gatewayAddress)
+                .numJobWorkerExecutionThreads(jobExecutionThreads);
         if (plaintext) {
             builder.usePlaintext();
         }
         ZeebeClient client = builder.build();
-        log.info("Zeebe client created. Gateway={}, plaintext={}.", gatewayAddress, plaintext);
+        log.info("Zeebe client created. Gateway={}, plaintext={}, jobExecutionThreads={}.", gatewayAddress, plaintext,
+                jobExecutionThreads);
         return client;
     }
 
@@ -44,14 +51,15 @@ public class ZeebeConfig {
             return;
         }
         try {
-            // Deploy BPMN from classpath
+            // Deploy BPMN from classpath: both variants of the loan approval process run side by side
             DeploymentEvent deployment = zeebeClient().newDeployResourceCommand()
                     .addResourceFromClasspath("loan-approval.bpmn")
+                    .addResourceFromClasspath("loan-approval-parallel.bpmn")
                     .send()
                     .join();
             log.info("Deployed processes: {}", deployment.getProcesses());
         } catch (Exception ex) {
-            log.warn("Failed to deploy BPMN 'loan-approval.bpmn' on startup: {}", ex.getMessage());
+            log.warn("Failed to deploy loan approval BPMN on startup: {}", ex.getMessage());
         }
     }
 }
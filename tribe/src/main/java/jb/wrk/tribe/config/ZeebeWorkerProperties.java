@@ -0,0 +1,141 @@
+package jb.wrk.tribe.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Job worker tuning. Values under {@code defaults} apply to every job type and can be overridden
+ * per type, e.g. {@code app.zeebe.workers.types.check-credit.max-jobs-active=64}.
+ */
+@ConfigurationProperties(prefix = "app.zeebe.workers")
+public class ZeebeWorkerProperties {
+    private JobType defaults = JobType.builtInDefaults();
+    private Map<String, JobType> types = new HashMap<>();
+
+    /**
+     * Effective settings for a job type: the type's own values, falling back to the defaults.
+     */
+    public JobType forType(String jobType) {
+        return forType(jobType, new JobType());
+    }
+
+    /**
+     * Effective settings for a job type whose handler declares its own settings in code: properties for
+     * the type win over the declared values, which win over the defaults.
+     */
+    public JobType forType(String jobType, JobType declared) {
+        JobType override = types.getOrDefault(jobType, new JobType());
+        return override.withFallback(declared.withFallback(defaults));
+    }
+
+    public JobType getDefaults() {
+        return defaults;
+    }
+    public void setDefaults(JobType defaults) {
+        this.defaults = defaults.withFallback(JobType.builtInDefaults());
+    }
+
+    public Map<String, JobType> getTypes() {
+        return types;
+    }
+    public void setTypes(Map<String, JobType> types) {
+        this.types = types;
+    }
+
+    public static class JobType {
+        private Integer maxJobsActive;
+        private Duration pollInterval;
+        private Duration requestTimeout;
+        private Duration timeout;
+        // Push jobs over a gateway stream as they are created; polling stays on as the fallback
+        private Boolean streamEnabled;
+        private Duration backoffMinDelay;
+        private Duration backoffMaxDelay;
+        private Duration retryBackoff;
+
+        static JobType builtInDefaults() {
+            JobType defaults = new JobType();
+            defaults.setMaxJobsActive(32);
+            defaults.setPollInterval(Duration.ofMillis(100));
+            defaults.setRequestTimeout(Duration.ofSeconds(20));
+            defaults.setTimeout(Duration.ofSeconds(30));
+            defaults.setStreamEnabled(false);
+            defaults.setBackoffMinDelay(Duration.ofMillis(50));
+            defaults.setBackoffMaxDelay(Duration.ofSeconds(5));
+            defaults.setRetryBackoff(Duration.ZERO);
+            return defaults;
+        }
+
+        public JobType withFallback(JobType fallback) {
+            JobType merged = new JobType();
+            merged.setMaxJobsActive(maxJobsActive != null ? maxJobsActive : fallback.getMaxJobsActive());
+            merged.setPollInterval(pollInterval != null ? pollInterval : fallback.getPollInterval());
+            merged.setRequestTimeout(requestTimeout != null ? requestTimeout : fallback.getRequestTimeout());
+            merged.setTimeout(timeout != null ? timeout : fallback.getTimeout());
+            merged.setStreamEnabled(streamEnabled != null ? streamEnabled : fallback.getStreamEnabled());
+            merged.setBackoffMinDelay(backoffMinDelay != null ? backoffMinDelay : fallback.getBackoffMinDelay());
+            merged.setBackoffMaxDelay(backoffMaxDelay != null ? backoffMaxDelay : fallback.getBackoffMaxDelay());
+            merged.setRetryBackoff(retryBackoff != null ? retryBackoff : fallback.getRetryBackoff());
+            return merged;
+        }
+
+        public Integer getMaxJobsActive() {
+            return maxJobsActive;
+        }
+        public void setMaxJobsActive(Integer maxJobsActive) {
+            this.maxJobsActive = maxJobsActive;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public Duration getRequestTimeout() {
+            return requestTimeout;
+        }
+        public void setRequestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public Boolean getStreamEnabled() {
+            return streamEnabled;
+        }
+        public void setStreamEnabled(Boolean streamEnabled) {
+            this.streamEnabled = streamEnabled;
+        }
+
+        public Duration getBackoffMinDelay() {
+            return backoffMinDelay;
+        }
+        public void setBackoffMinDelay(Duration backoffMinDelay) {
+            this.backoffMinDelay = backoffMinDelay;
+        }
+
+        public Duration getBackoffMaxDelay() {
+            return backoffMaxDelay;
+        }
+        public void setBackoffMaxDelay(Duration backoffMaxDelay) {
+            this.backoffMaxDelay = backoffMaxDelay;
+        }
+
+        public Duration getRetryBackoff() {
+            return retryBackoff;
+        }
+        public void setRetryBackoff(Duration retryBackoff) {
+            this.retryBackoff = retryBackoff;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package jb.wrk.tribe.demo.components;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jb.wrk.tribe.demo.dto.BlobReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Local content-addressed blob store for the claim-check pattern: large payloads are written here and
+ * only a {@link BlobReference} travels through Zeebe, so the broker neither stores nor ships the payload
+ * with every job activation. Blobs are immutable files named by their SHA-256 and read through a
+ * memory mapping, so a handler that does not need the content never touches it.
+ */
+@Component
+public class BlobStore {
+
+    private static final Logger log = LoggerFactory.getLogger(BlobStore.class);
+
+    public static final String JSON = "application/json";
+
+    private final Path root;
+    private final Duration retention;
+    private final ObjectMapper objectMapper;
+    private final DistributionSummary blobSize;
+
+    public BlobStore(@Value("${app.blobs.storage-dir:${java.io.tmpdir}/tribe-blobs}") Path root,
+                     @Value("${app.blobs.retention:30d}") Duration retention,
+                     ObjectMapper objectMapper,
+                     MeterRegistry meterRegistry) {
+        this.root = root;
+        this.retention = retention;
+        this.objectMapper = objectMapper;
+        this.blobSize = DistributionSummary.builder("blobs.put.size")
+                .description("Size of payloads moved out of process variables")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stores a value as JSON, serialized straight to disk.
+     */
+    public BlobReference putJson(Object value) {
+        return put(JSON, out -> objectMapper.writeValue(out, value));
+    }
+
+    public BlobReference put(String mediaType, InputStream content) {
+        return put(mediaType, content::transferTo);
+    }
+
+    /**
+     * Reads a JSON blob. Only handlers that need the content should call this; passing the reference on
+     * costs nothing.
+     */
+    public <T> T readJson(BlobReference reference, Class<T> type) {
+        try (InputStream in = new ByteBufferBackedInputStream(map(reference))) {
+            return objectMapper.readValue(in, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read blob " + reference.id(), e);
+        }
+    }
+
+    /**
+     * Read-only view of the blob's content, mapped from the file rather than copied onto the heap.
+     */
+    public MappedByteBuffer map(BlobReference reference) {
+        try (FileChannel channel = FileChannel.open(pathOf(reference.id()))) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            throw new IllegalStateException("Blob " + reference.id() + " does not exist", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read blob " + reference.id(), e);
+        }
+    }
+
+    private BlobReference put(String mediaType, ContentWriter writer) {
+        try {
+            Files.createDirectories(root);
+            Path partial = root.resolve(UUID.randomUUID() + ".part");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try {
+                try (OutputStream out = new DigestOutputStream(Files.newOutputStream(partial), digest)) {
+                    writer.write(out);
+                }
+                String id = HexFormat.of().formatHex(digest.digest());
+                long size = Files.size(partial);
+                Path target = pathOf(id);
+                Files.createDirectories(target.getParent());
+                if (Files.exists(target)) {
+                    // Same content stored before: keep the existing blob and extend its retention
+                    Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                } else {
+                    // Replacing a concurrently stored twin is harmless, the content is identical
+                    Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+                }
+                blobSize.record(size);
+                return new BlobReference(id, size, mediaType);
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store blob", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Two-level fan-out keeps directories small: ab/cdef...
+    private Path pathOf(String id) {
+        if (!id.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Invalid blob id " + id);
+        }
+        return root.resolve(id.substring(0, 2)).resolve(id.substring(2));
+    }
+
+    /**
+     * Deletes blobs not written within the retention period; process instances are expected to have
+     * finished with them by then.
+     */
+    @Scheduled(fixedDelayString = "${app.blobs.purge-interval:PT1H}")
+    public void purgeExpired() {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(retention);
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            long purged = files.filter(Files::isRegularFile)
+                    .filter(file -> isOlderThan(file, cutoff))
+                    .filter(BlobStore::deleteQuietly)
+                    .count();
+            if (purged > 0) {
+                log.info("Purged {} expired blobs", purged);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to purge expired blobs: {}", e.getMessage());
+        }
+    }
+
+    private static boolean isOlderThan(Path file, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean deleteQuietly(Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ContentWriter {
+        void write(OutputStream out) throws IOException;
+    }
+}
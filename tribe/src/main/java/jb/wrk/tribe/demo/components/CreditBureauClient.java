@@ -0,0 +1,20 @@
+package jb.wrk.tribe.demo.components;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Access to the external credit bureau. Implementations must not block the caller; the returned
+ * future completes with the applicant's score or fails.
+ */
+public interface CreditBureauClient {
+
+    CompletableFuture<Integer> fetchScore(String applicant);
+
+    /**
+     * Bulk inquiry: scores of all given applicants in one call. Applicants the bureau does not know are
+     * missing from the result.
+     */
+    CompletableFuture<Map<String, Integer>> fetchScores(Collection<String> applicants);
+}
@@ -0,0 +1,167 @@
+package jb.wrk.tribe.demo.components;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jb.wrk.tribe.demo.dto.CreditCheckResult;
+import jb.wrk.tribe.demo.dto.CreditCheckVariables;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects credit checks arriving within a short window (or until the batch is full) and runs them
+ * through {@link CreditCheckService#checkCredits(List)} together, so concurrent check-credit jobs share
+ * one bulk bureau inquiry. Each caller still gets its own result: when the bulk inquiry fails (a
+ * timeout, one applicant the bureau rejects), every check of the batch falls back to its own lookup, so
+ * only the affected checks fail instead of the whole batch failing and retrying together.
+ */
+@Component
+public class CreditCheckBatcher {
+
+    private final CreditCheckService creditCheckService;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler;
+    private final DistributionSummary batchSize;
+    private final Timer batchLatency;
+    private final Counter fallbacks;
+
+    // Guarded by this
+    private List<Pending> pending = new ArrayList<>();
+
+    public CreditCheckBatcher(CreditCheckService creditCheckService,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.credit-check.batch.window:20ms}") Duration window,
+                              @Value("${app.credit-check.batch.max-size:50}") int maxBatchSize) {
+        this.creditCheckService = creditCheckService;
+        this.window = window;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "credit-check-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("credit.check.batch.window", window, Duration::toMillis)
+                .description("Time a credit check waits for others to join its batch")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("credit.check.batch.max.size", this, batcher -> batcher.maxBatchSize)
+                .description("Credit checks that dispatch a batch without waiting for the window")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("credit.check.batch.size")
+                .description("Credit checks dispatched together")
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+        this.batchLatency = Timer.builder("credit.check.batch.latency")
+                .description("Time from dispatching a batch until its results are available")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("credit.check.batch.fallbacks")
+                .description("Batches whose bulk lookup failed and whose checks were looked up one by one")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a credit check for the next batch. The future fails when neither the batch's lookup nor
+     * this check's own lookup succeeds.
+     */
+    public CompletableFuture<CreditCheckResult> submit(CreditCheckVariables variables) {
+        Pending entry = new Pending(variables, new CompletableFuture<>());
+        List<Pending> full = null;
+        synchronized (this) {
+            pending.add(entry);
+            if (pending.size() >= maxBatchSize) {
+                full = takePending();
+            } else if (pending.size() == 1) {
+                List<Pending> batch = pending;
+                scheduler.schedule(() -> dispatchIfCurrent(batch), window.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return entry.result();
+    }
+
+    // The window of a batch that already filled up is a no-op
+    private void dispatchIfCurrent(List<Pending> batch) {
+        synchronized (this) {
+            if (pending != batch) {
+                return;
+            }
+            takePending();
+        }
+        dispatch(batch);
+    }
+
+    private List<Pending> takePending() {
+        List<Pending> batch = pending;
+        pending = new ArrayList<>();
+        return batch;
+    }
+
+    private void dispatch(List<Pending> batch) {
+        batchSize.record(batch.size());
+        long start = System.nanoTime();
+        CompletableFuture<List<CreditCheckResult>> results;
+        try {
+            results = creditCheckService.checkCredits(batch.stream().map(Pending::variables).toList());
+        } catch (RuntimeException e) {
+            results = CompletableFuture.failedFuture(e);
+        }
+        results.whenComplete((list, ex) -> {
+            batchLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (ex == null) {
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).result().complete(list.get(i));
+                }
+            } else if (batch.size() == 1) {
+                batch.get(0).result().completeExceptionally(ex);
+            } else {
+                fallbacks.increment();
+                batch.forEach(this::checkAlone);
+            }
+        });
+    }
+
+    private void checkAlone(Pending entry) {
+        CompletableFuture<CreditCheckResult> single;
+        try {
+            single = creditCheckService.checkCreditAsync(entry.variables());
+        } catch (RuntimeException e) {
+            single = CompletableFuture.failedFuture(e);
+        }
+        single.whenComplete((result, ex) -> {
+            if (ex != null) {
+                entry.result().completeExceptionally(ex);
+            } else {
+                entry.result().complete(result);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        List<Pending> remaining;
+        synchronized (this) {
+            remaining = takePending();
+        }
+        if (!remaining.isEmpty()) {
+            dispatch(remaining);
+        }
+        scheduler.shutdown();
+    }
+
+    private record Pending(CreditCheckVariables variables, CompletableFuture<CreditCheckResult> result) {}
+}
@@ -1,42 +1,146 @@
 package jb.wrk.tribe.demo.components;
 
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jb.wrk.tribe.demo.dto.CreditCheckResult;
+import jb.wrk.tribe.demo.dto.CreditCheckVariables;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Camunda 8 compatible helper service used by ZeebeWorkers to perform credit checks.
+ * Scores looked up for an applicant are cached for a short TTL; concurrent checks for the same
+ * applicant share one lookup (single flight), so resubmitted applications do not repeat it.
+ * Checks submitted together via {@link #checkCredits(List)} look up all cache misses in one bulk
+ * bureau inquiry.
  */
 @Component("creditCheckService")
 public class CreditCheckService {
 
     private static final Logger log = LoggerFactory.getLogger(CreditCheckService.class);
 
+    private static final int DEFAULT_CREDIT_SCORE = 750; // default mock score
+
+    private final CreditBureauClient creditBureauClient;
+
+    // Applicant identity -> score; exported as cache.gets{result=hit|miss}, cache.evictions, cache.size
+    private final AsyncLoadingCache<String, Integer> creditScores;
+
+    public CreditCheckService(CreditBureauClient creditBureauClient,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.credit-check.cache.ttl:10m}") Duration cacheTtl,
+                              @Value("${app.credit-check.cache.max-size:100000}") long cacheMaxSize) {
+        this.creditBureauClient = creditBureauClient;
+        this.creditScores = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .buildAsync(new AsyncCacheLoader<String, Integer>() {
+                    @Override
+                    public CompletableFuture<Integer> asyncLoad(String applicant, Executor executor) {
+                        return lookupScore(applicant);
+                    }
+
+                    @Override
+                    public CompletableFuture<Map<String, Integer>> asyncLoadAll(Set<? extends String> applicants, Executor executor) {
+                        return lookupScores(applicants);
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, creditScores, "credit.scores");
+    }
+
     /**
-     * Perform a mock credit check. If a creditScore is already provided, use it; otherwise set a default.
+     * Perform a credit check. If a creditScore is already provided, use it; otherwise ask the credit
+     * bureau for the applicant (cached), and fall back to a default when there is no applicant.
      */
-    public Map<String, Object> checkCredit(Map<String, Object> variables) {
-        Object loanApplicationId = variables.get("loanApplicationId");
-        log.info("Checking credit score for loan application: {} vars={}", loanApplicationId, variables);
-
-        Integer creditScore = null;
-        Object v = variables.get("creditScore");
-        if (v instanceof Number) {
-            creditScore = ((Number) v).intValue();
+    public CreditCheckResult checkCredit(CreditCheckVariables variables) {
+        return checkCreditAsync(variables).join();
+    }
+
+    /**
+     * Non-blocking variant of {@link #checkCredit(CreditCheckVariables)}: a bureau lookup, if needed, is
+     * a single inquiry for this applicant.
+     */
+    public CompletableFuture<CreditCheckResult> checkCreditAsync(CreditCheckVariables variables) {
+        log.info("Checking credit score for loan application: {}", variables.loanApplicationId());
+
+        CompletableFuture<Integer> creditScore;
+        if (variables.creditScore() != null) {
+            creditScore = CompletableFuture.completedFuture(variables.creditScore());
+        } else if (variables.applicantEmail() != null && !variables.applicantEmail().isBlank()) {
+            creditScore = creditScores.get(applicantKey(variables.applicantEmail()));
+        } else {
+            creditScore = CompletableFuture.completedFuture(DEFAULT_CREDIT_SCORE);
         }
-        if (creditScore == null) {
-            creditScore = 750; // default mock score
+        return creditScore.thenApply(score -> new CreditCheckResult(score, true, LocalDateTime.now().toString()));
+    }
+
+    /**
+     * Batch variant of {@link #checkCredit(CreditCheckVariables)}: results are in the order of the given
+     * variables, and applicants missing from the cache are looked up in a single bulk inquiry.
+     */
+    public CompletableFuture<List<CreditCheckResult>> checkCredits(List<CreditCheckVariables> batch) {
+        List<String> applicants = new ArrayList<>();
+        for (CreditCheckVariables variables : batch) {
+            if (variables.creditScore() == null && variables.applicantEmail() != null && !variables.applicantEmail().isBlank()) {
+                applicants.add(applicantKey(variables.applicantEmail()));
+            }
         }
+        CompletableFuture<Map<String, Integer>> scores = applicants.isEmpty()
+                ? CompletableFuture.completedFuture(Map.of())
+                : creditScores.getAll(applicants);
+        return scores.thenApply(scoreByApplicant -> {
+            String timestamp = LocalDateTime.now().toString();
+            List<CreditCheckResult> results = new ArrayList<>(batch.size());
+            for (CreditCheckVariables variables : batch) {
+                int creditScore;
+                if (variables.creditScore() != null) {
+                    creditScore = variables.creditScore();
+                } else if (variables.applicantEmail() != null && !variables.applicantEmail().isBlank()) {
+                    creditScore = scoreByApplicant.getOrDefault(applicantKey(variables.applicantEmail()), DEFAULT_CREDIT_SCORE);
+                } else {
+                    creditScore = DEFAULT_CREDIT_SCORE;
+                }
+                results.add(new CreditCheckResult(creditScore, true, timestamp));
+            }
+            return results;
+        });
+    }
 
-        Map<String, Object> updates = new HashMap<>();
-        updates.put("creditScore", creditScore);
-        updates.put("creditCheckComplete", true);
-        updates.put("creditCheckTimestamp", LocalDateTime.now().toString());
-        return updates;
+    private static String applicantKey(String applicantEmail) {
+        return applicantEmail.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Bureau lookup; only reached on a cache miss. A failed lookup is not cached and fails the job,
+     * which is then retried by the broker.
+     */
+    private CompletableFuture<Integer> lookupScore(String applicant) {
+        log.info("Credit bureau lookup for applicant {}", applicant);
+        return creditBureauClient.fetchScore(applicant);
     }
-}
 
+    /**
+     * Bulk bureau lookup for the cache misses of a batch. Applicants the bureau does not know are not
+     * cached and get the default score.
+     */
+    private CompletableFuture<Map<String, Integer>> lookupScores(Set<? extends String> applicants) {
+        log.info("Credit bureau bulk lookup for {} applicants", applicants.size());
+        return creditBureauClient.fetchScores(List.copyOf(applicants));
+    }
+}
@@ -0,0 +1,88 @@
+package jb.wrk.tribe.demo.components;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * Local file storage for uploaded loan documents, one directory per loan application. Uploads are
+ * transferred channel to channel in bounded chunks, so a document never has to fit on the heap.
+ */
+@Component
+public class DocumentStorage {
+
+    // Bytes per transferFrom call; also how far an upload may overshoot the size limit before it is cut off
+    private static final long TRANSFER_CHUNK = 1024 * 1024;
+
+    private final Path root;
+    private final long maxDocumentSize;
+
+    public DocumentStorage(@Value("${app.documents.storage-dir:${java.io.tmpdir}/tribe-documents}") Path root,
+                           @Value("${app.documents.max-size:25MB}") DataSize maxDocumentSize) {
+        this.root = root;
+        this.maxDocumentSize = maxDocumentSize.toBytes();
+    }
+
+    /**
+     * Streams a document to storage. A partially written file is removed when the upload fails or
+     * exceeds the size limit.
+     */
+    public StoredDocument store(long loanApplicationId, String filename, String contentType, InputStream content) {
+        String documentId = UUID.randomUUID().toString();
+        try {
+            Path directory = Files.createDirectories(root.resolve(Long.toString(loanApplicationId)));
+            Path target = directory.resolve(documentId);
+            Path partial = directory.resolve(documentId + ".part");
+            long size = 0;
+            try (ReadableByteChannel in = Channels.newChannel(content);
+                 FileChannel out = FileChannel.open(partial, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                long transferred;
+                while ((transferred = out.transferFrom(in, size, TRANSFER_CHUNK)) > 0) {
+                    size += transferred;
+                    if (size > maxDocumentSize) {
+                        throw new DocumentTooLargeException(maxDocumentSize);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(partial);
+                throw e;
+            }
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            return new StoredDocument(documentId, loanApplicationId, target, sanitize(filename), contentType, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store document for loan application " + loanApplicationId, e);
+        }
+    }
+
+    public long getMaxDocumentSize() {
+        return maxDocumentSize;
+    }
+
+    private static String sanitize(String filename) {
+        if (filename == null || filename.isBlank()) {
+            return "document";
+        }
+        return Path.of(filename).getFileName().toString();
+    }
+
+    public record StoredDocument(String documentId, long loanApplicationId, Path path,
+                                 String filename, String contentType, long size) {}
+
+    public static class DocumentTooLargeException extends RuntimeException {
+        public DocumentTooLargeException(long maxDocumentSize) {
+            super("Document exceeds " + maxDocumentSize + " bytes");
+        }
+    }
+}
@@ -1,32 +1,287 @@
 package jb.wrk.tribe.demo.components;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import jb.wrk.tribe.demo.dto.BlobReference;
+import jb.wrk.tribe.demo.dto.DocumentCheck;
+import jb.wrk.tribe.demo.dto.DocumentValidationResult;
+import jb.wrk.tribe.demo.dto.DocumentValidationVariables;
+import jb.wrk.tribe.demo.entities.LoanDocument;
+import jb.wrk.tribe.demo.repository.LoanDocumentRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * Camunda 8 compatible helper service used by ZeebeWorkers to perform document validation
  * and provide process variable updates.
+ * <p>
+ * Uploaded documents are validated right after they are stored: size, type, checksum and virus scan
+ * run as parallel stages on a dedicated pool, and the outcome is saved with the document's row. The
+ * validate-docs job reads those saved results (waiting for validations still running here), so it
+ * normally does no file I/O of its own.
  */
 @Component("documentValidationService")
 public class DocumentValidationService {
     private static final Logger log = LoggerFactory.getLogger(DocumentValidationService.class);
 
+    private static final byte[] PDF_MAGIC = {'%', 'P', 'D', 'F'};
+    private static final byte[] PNG_MAGIC = {(byte) 0x89, 'P', 'N', 'G'};
+    private static final byte[] JPEG_MAGIC = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    // Virus scan stub: the standard EICAR test signature
+    private static final byte[] EICAR_SIGNATURE = "EICAR-STANDARD-ANTIVIRUS-TEST-FILE".getBytes(StandardCharsets.US_ASCII);
+    // Checksums and scans map the file in windows of this size
+    private static final long MAP_WINDOW = 64L * 1024 * 1024;
+    private static final String NOT_VALIDATED = "Validation did not complete";
+
+    private final ThreadPoolExecutor executor;
+    private final BlobStore blobStore;
+    private final MeterRegistry meterRegistry;
+    private final LoanDocumentRepository loanDocumentRepository;
+    private final long maxDocumentSize;
+    // Validations running on this node, by document id; an entry is removed once its result is saved
+    private final Map<String, CompletableFuture<DocumentCheck>> inFlight = new ConcurrentHashMap<>();
+
+    public DocumentValidationService(MeterRegistry meterRegistry,
+                                     DocumentStorage documentStorage,
+                                     BlobStore blobStore,
+                                     LoanDocumentRepository loanDocumentRepository,
+                                     @Value("${app.documents.validation.threads:4}") int threads,
+                                     @Value("${app.documents.validation.queue-capacity:1000}") int queueCapacity) {
+        this.blobStore = blobStore;
+        this.loanDocumentRepository = loanDocumentRepository;
+        this.meterRegistry = meterRegistry;
+        this.maxDocumentSize = documentStorage.getMaxDocumentSize();
+        AtomicInteger threadCounter = new AtomicInteger();
+        // A full queue runs the stage on the uploading thread, which slows uploads down instead of failing them
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "document-validation-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        new ExecutorServiceMetrics(executor, "documents.validation", Tags.empty()).bindTo(meterRegistry);
+    }
+
     /**
-     * Perform a mock validation and return variables to update in the workflow.
+     * Validate-docs job: combines the saved checks of all documents uploaded for the loan.
+     * Applications without uploads keep passing, as before uploads existed. The checks themselves are
+     * handed to the process as a blob reference.
      */
-    public Map<String, Object> validateDocuments(Map<String, Object> variables) {
-        Object processInstanceId = variables.get("processInstanceId");
-        log.info("Validating documents for process: {} vars={}", processInstanceId, variables);
+    public CompletableFuture<DocumentValidationResult> validateDocuments(DocumentValidationVariables variables) {
+        log.info("Validating documents for loan application: {}", variables.loanApplicationId());
+        List<LoanDocument> documents = variables.loanApplicationId() == null
+                ? List.of()
+                : documentsFor(variables.loanApplicationId());
+        List<CompletableFuture<DocumentCheck>> pending = documents.stream().map(this::checkOf).toList();
+        return CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new))
+                .thenApply(done -> {
+                    List<DocumentCheck> report = pending.stream().map(CompletableFuture::join).toList();
+                    boolean valid = report.stream().allMatch(DocumentCheck::valid);
+                    BlobReference reportRef = report.isEmpty() ? null : blobStore.putJson(report);
+                    return new DocumentValidationResult(valid, LocalDateTime.now().toString(), reportRef);
+                });
+    }
 
-        Map<String, Object> updates = new HashMap<>();
-        updates.put("documentsValid", true);
-        updates.put("validationTimestamp", LocalDateTime.now().toString());
-        return updates;
+    /**
+     * Records a stored document, starts validating it and returns its outcome once every stage has
+     * finished and the result is saved.
+     */
+    public CompletableFuture<DocumentCheck> submit(DocumentStorage.StoredDocument document) {
+        loanDocumentRepository.save(new LoanDocument(document.documentId(), document.loanApplicationId(),
+                document.path().toString(), document.filename(), document.contentType(), document.size()));
+        return validate(document);
+    }
+
+    public List<LoanDocument> documentsFor(long loanApplicationId) {
+        return loanDocumentRepository.findByLoanApplicationIdOrderByCreatedAt(loanApplicationId);
+    }
+
+    /**
+     * Whether every document uploaded for the loan has a saved, passing check; true without uploads.
+     * Documents still validating count as not passed.
+     */
+    public boolean allDocumentsPassed(Long loanApplicationId) {
+        return loanApplicationId == null || documentsFor(loanApplicationId).stream()
+                .allMatch(document -> document.isChecked() && document.toCheck().valid());
     }
-}
 
+    // A document still unchecked but not validating here was uploaded to another node or before a restart:
+    // it is validated again when its file is reachable, and otherwise counts as invalid
+    private CompletableFuture<DocumentCheck> checkOf(LoanDocument document) {
+        if (document.isChecked()) {
+            return CompletableFuture.completedFuture(document.toCheck());
+        }
+        CompletableFuture<DocumentCheck> running = inFlight.get(document.getDocumentId());
+        if (running != null) {
+            return running;
+        }
+        Path path = Path.of(document.getStoragePath());
+        if (Files.isRegularFile(path)) {
+            return validate(new DocumentStorage.StoredDocument(document.getDocumentId(), document.getLoanApplicationId(),
+                    path, document.getFilename(), document.getContentType(), document.getSize()));
+        }
+        return CompletableFuture.completedFuture(new DocumentCheck(document.getDocumentId(), document.getFilename(),
+                document.getContentType(), document.getSize(), null, List.of(NOT_VALIDATED)));
+    }
+
+    private CompletableFuture<DocumentCheck> validate(DocumentStorage.StoredDocument document) {
+        CompletableFuture<Void> size = stage("size", () -> checkSize(document));
+        CompletableFuture<Void> type = stage("type", () -> checkType(document));
+        CompletableFuture<String> checksum = stage("checksum", () -> sha256(document));
+        CompletableFuture<Void> virusScan = stage("virus-scan", () -> scanForViruses(document));
+
+        CompletableFuture<DocumentCheck> check = CompletableFuture.allOf(size, type, checksum, virusScan)
+                .handle((done, ignored) -> {
+                    List<String> problems = new ArrayList<>();
+                    collectProblem(size, problems);
+                    collectProblem(type, problems);
+                    collectProblem(checksum, problems);
+                    collectProblem(virusScan, problems);
+                    return new DocumentCheck(document.documentId(), document.filename(), document.contentType(),
+                            document.size(), checksum.isCompletedExceptionally() ? null : checksum.join(), problems);
+                })
+                .thenApply(result -> {
+                    loanDocumentRepository.recordCheck(result.documentId(), result.sha256(),
+                            LoanDocument.joinProblems(result.problems()), Instant.now());
+                    return result;
+                });
+        inFlight.put(document.documentId(), check);
+        check.whenComplete((result, error) -> inFlight.remove(document.documentId(), check));
+        return check;
+    }
+
+    private <T> CompletableFuture<T> stage(String name, Supplier<T> work) {
+        Timer timer = Timer.builder("documents.validation.stage")
+                .description("Time spent in one document validation stage")
+                .tag("stage", name)
+                .register(meterRegistry);
+        return CompletableFuture.supplyAsync(() -> timer.record(work), executor);
+    }
+
+    private static void collectProblem(CompletableFuture<?> stage, List<String> problems) {
+        try {
+            stage.join();
+        } catch (CompletionException e) {
+            problems.add(e.getCause().getMessage());
+        }
+    }
+
+    private Void checkSize(DocumentStorage.StoredDocument document) {
+        if (document.size() == 0) {
+            throw new IllegalArgumentException("Document is empty");
+        }
+        if (document.size() > maxDocumentSize) {
+            throw new IllegalArgumentException("Document exceeds " + maxDocumentSize + " bytes");
+        }
+        return null;
+    }
+
+    // The declared content type must match the file's leading bytes
+    private static Void checkType(DocumentStorage.StoredDocument document) {
+        byte[] expected = switch (String.valueOf(document.contentType())) {
+            case "application/pdf" -> PDF_MAGIC;
+            case "image/png" -> PNG_MAGIC;
+            case "image/jpeg" -> JPEG_MAGIC;
+            default -> throw new IllegalArgumentException("Unsupported content type " + document.contentType());
+        };
+        ByteBuffer head = ByteBuffer.allocate(expected.length);
+        try (FileChannel channel = FileChannel.open(document.path())) {
+            while (head.hasRemaining() && channel.read(head) > 0) {
+                // keep reading the header
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (head.hasRemaining() || !head.flip().equals(ByteBuffer.wrap(expected))) {
+            throw new IllegalArgumentException("Content does not match type " + document.contentType());
+        }
+        return null;
+    }
+
+    private static String sha256(DocumentStorage.StoredDocument document) {
+        try (FileChannel channel = FileChannel.open(document.path())) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAP_WINDOW) {
+                digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_WINDOW, size - position)));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Stand-in for an antivirus engine: rejects files containing the EICAR test signature
+    private static Void scanForViruses(DocumentStorage.StoredDocument document) {
+        try (FileChannel channel = FileChannel.open(document.path())) {
+            long size = channel.size();
+            // Windows overlap by the signature length so a match across a boundary is found
+            long step = MAP_WINDOW - EICAR_SIGNATURE.length;
+            for (long position = 0; position < size; position += step) {
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_WINDOW, size - position));
+                if (contains(window, EICAR_SIGNATURE)) {
+                    throw new IllegalArgumentException("Virus scan found a test signature");
+                }
+                if (position + MAP_WINDOW >= size) {
+                    break;
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean contains(ByteBuffer buffer, byte[] pattern) {
+        int last = buffer.limit() - pattern.length;
+        outer:
+        for (int i = 0; i <= last; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (buffer.get(i + j) != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,113 @@
+package jb.wrk.tribe.demo.components;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Credit bureau client over HTTP: {@code GET {baseUrl}/scores?applicant=...} answering
+ * {@code {"applicant": "...", "score": 712}}, and {@code POST {baseUrl}/scores/bulk} with a JSON array of
+ * applicants answering {@code {"scores": {"<applicant>": 712, ...}}}. Each request carries its own timeout.
+ */
+public class HttpCreditBureauClient implements CreditBureauClient {
+
+    private final HttpClient httpClient;
+    private final Supplier<URI> baseUri;
+    private final Duration callTimeout;
+    private final ObjectMapper objectMapper;
+
+    public HttpCreditBureauClient(Supplier<URI> baseUri, Duration callTimeout, ObjectMapper objectMapper) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(callTimeout)
+                .build();
+        this.baseUri = baseUri;
+        this.callTimeout = callTimeout;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public CompletableFuture<Integer> fetchScore(String applicant) {
+        HttpRequest request = HttpRequest.newBuilder(
+                        endpoint("scores?applicant=" + URLEncoder.encode(applicant, StandardCharsets.UTF_8)))
+                .timeout(callTimeout)
+                .GET()
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Credit bureau answered HTTP " + response.statusCode());
+                    }
+                    return readScore(response.body());
+                });
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Integer>> fetchScores(Collection<String> applicants) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(endpoint("scores/bulk"))
+                    .timeout(callTimeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(applicants)))
+                    .build();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Credit bureau answered HTTP " + response.statusCode());
+                    }
+                    return readScores(response.body());
+                });
+    }
+
+    // Relative to the base URL including its path, e.g. https://bureau.example/v2 + scores -> /v2/scores
+    private URI endpoint(String relativePath) {
+        URI base = baseUri.get();
+        if (!base.getRawPath().endsWith("/")) {
+            base = URI.create(base + "/");
+        }
+        return base.resolve(relativePath);
+    }
+
+    private Map<String, Integer> readScores(String body) {
+        try {
+            JsonNode scores = objectMapper.readTree(body).get("scores");
+            if (scores == null || !scores.isObject()) {
+                throw new IllegalStateException("Credit bureau response has no scores");
+            }
+            Map<String, Integer> result = new HashMap<>();
+            scores.properties().forEach(entry -> result.put(entry.getKey(), entry.getValue().intValue()));
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int readScore(String body) {
+        try {
+            JsonNode score = objectMapper.readTree(body).get("score");
+            if (score == null || !score.canConvertToInt()) {
+                throw new IllegalStateException("Credit bureau response has no score");
+            }
+            return score.intValue();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package jb.wrk.tribe.demo.components;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jb.wrk.tribe.demo.dto.StartedProcess;
+import jb.wrk.tribe.demo.entities.IdempotencyRecord;
+import jb.wrk.tribe.demo.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates process starts by Idempotency-Key. A bounded in-memory cache with a TTL holds one
+ * future per key: the first request runs the start, a retry that arrives while it is in flight joins
+ * the same future, and later retries get the stored result back. With app.idempotency.jpa-enabled the
+ * key is also claimed in the idempotency_keys table before the start (an insert, so a second node's
+ * claim fails instead of overwriting it) and completed afterwards, which covers restarts and other nodes.
+ * <p>
+ * Every key remembers a SHA-256 of the request it was first used with; reusing the key for a
+ * different request is rejected instead of replaying a process that request never started.
+ */
+@Component
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectWriter canonicalWriter;
+    private final Duration ttl;
+    private final boolean jpaEnabled;
+    private final Cache<String, Entry> inMemory;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              ObjectMapper objectMapper,
+                              @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${app.idempotency.max-size:100000}") long maxSize,
+                              @Value("${app.idempotency.jpa-enabled:false}") boolean jpaEnabled) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        // Map entries sorted by key, so equal requests always serialize (and hash) the same
+        this.canonicalWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.ttl = ttl;
+        this.jpaEnabled = jpaEnabled;
+        this.inMemory = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Result of {@link #execute}; {@code replayed} is true when the start was not performed by this call.
+     */
+    public record Outcome(StartedProcess process, boolean replayed) {}
+
+    private record Entry(String requestHash, CompletableFuture<StartedProcess> process) {}
+
+    /**
+     * Runs {@code start} at most once per scope and key within the TTL. {@code request} describes what
+     * is started (it is hashed, not stored); a retry has to describe the same start. A failed start is
+     * forgotten, so the client can retry it with the same key.
+     *
+     * @throws KeyReusedException when the key was already used for a different request
+     * @throws KeyInProgressException when another node is still starting the process for the key
+     */
+    public Outcome execute(String scope, String key, Object request, Supplier<StartedProcess> start) {
+        String scopedKey = scope + ":" + key;
+        String requestHash = hash(request);
+        Entry owned = new Entry(requestHash, new CompletableFuture<>());
+        Entry existing = inMemory.asMap().putIfAbsent(scopedKey, owned);
+        if (existing != null) {
+            checkSameRequest(key, existing.requestHash(), requestHash);
+            return new Outcome(join(existing.process()), true);
+        }
+
+        boolean claimed = false;
+        try {
+            Optional<StartedProcess> stored = claim(scopedKey, key, requestHash);
+            if (stored.isPresent()) {
+                owned.process().complete(stored.get());
+                return new Outcome(stored.get(), true);
+            }
+            claimed = jpaEnabled;
+            StartedProcess started = start.get();
+            complete(scopedKey, started);
+            owned.process().complete(started);
+            return new Outcome(started, false);
+        } catch (RuntimeException e) {
+            inMemory.asMap().remove(scopedKey, owned);
+            owned.process().completeExceptionally(e);
+            if (claimed) {
+                release(scopedKey);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Claims the key in the table, or returns the process a completed earlier claim started.
+     */
+    private Optional<StartedProcess> claim(String scopedKey, String key, String requestHash) {
+        if (!jpaEnabled) {
+            return Optional.empty();
+        }
+        Optional<StartedProcess> stored = findStored(scopedKey, key, requestHash);
+        if (stored.isPresent()) {
+            return stored;
+        }
+        try {
+            // An expired record that was not purged yet would block the insert
+            idempotencyRecordRepository.deleteExpired(scopedKey, Instant.now());
+            idempotencyRecordRepository.saveAndFlush(new IdempotencyRecord(scopedKey, requestHash, Instant.now().plus(ttl)));
+            return Optional.empty();
+        } catch (DataIntegrityViolationException e) {
+            // Another node claimed the key between the lookup and the insert
+            return findStored(scopedKey, key, requestHash);
+        }
+    }
+
+    private Optional<StartedProcess> findStored(String scopedKey, String key, String requestHash) {
+        Optional<IdempotencyRecord> stored = idempotencyRecordRepository.findActive(scopedKey, Instant.now());
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+        IdempotencyRecord record = stored.get();
+        checkSameRequest(key, record.getRequestHash(), requestHash);
+        if (!record.isCompleted()) {
+            throw new KeyInProgressException(key);
+        }
+        return Optional.of(new StartedProcess(record.getProcessInstanceKey(), record.getBpmnProcessId(), record.getVersion()));
+    }
+
+    private void complete(String scopedKey, StartedProcess started) {
+        if (!jpaEnabled) {
+            return;
+        }
+        try {
+            idempotencyRecordRepository.complete(scopedKey, started.processInstanceKey(),
+                    started.bpmnProcessId(), started.version());
+        } catch (DataAccessException e) {
+            // The process is already started; the claim stays pending on other nodes until it expires
+            log.warn("Failed to complete idempotency key {}: {}", scopedKey, e.getMessage());
+        }
+    }
+
+    private void release(String scopedKey) {
+        try {
+            idempotencyRecordRepository.deleteById(scopedKey);
+        } catch (DataAccessException e) {
+            log.warn("Failed to release idempotency key {}: {}", scopedKey, e.getMessage());
+        }
+    }
+
+    private static void checkSameRequest(String key, String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new KeyReusedException(key);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonicalWriter.writeValueAsBytes(request)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request cannot be serialized for hashing", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval:PT10M}")
+    public void purgeExpired() {
+        if (jpaEnabled) {
+            int purged = idempotencyRecordRepository.deleteExpired(Instant.now());
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private static StartedProcess join(CompletableFuture<StartedProcess> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    public static class KeyReusedException extends RuntimeException {
+        public KeyReusedException(String key) {
+            super("Idempotency-Key " + key + " was already used for a different request");
+        }
+    }
+
+    public static class KeyInProgressException extends RuntimeException {
+        public KeyInProgressException(String key) {
+            super("A request with Idempotency-Key " + key + " is still in progress");
+        }
+    }
+}
@@ -1,30 +1,36 @@
 package jb.wrk.tribe.demo.components;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
+@Profile("!reactive")
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    @Autowired
-    private JwtUtils jwtUtils;
+    private final JwtUtils jwtUtils;
+    private final UserSecurityStateCache userSecurityStateCache;
 
-    @Autowired
-    private UserDetailsService userDetailsService;
+    public JwtAuthenticationFilter(JwtUtils jwtUtils, UserSecurityStateCache userSecurityStateCache) {
+        this.jwtUtils = jwtUtils;
+        this.userSecurityStateCache = userSecurityStateCache;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -40,16 +46,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String username = jwtUtils.extractUsername(jwt);
+            // Parse and verify once; everything below reads from the same claims
+            final Claims claims = jwtUtils.parseClaims(jwt);
+            final String username = claims.getSubject();
 
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null
+                    && userSecurityStateCache.accepts(username, jwtUtils.extractSecurityVersion(claims))) {
+                // The principal is rebuilt from the signed claims, no user lookup per request
+                List<GrantedAuthority> authorities = jwtUtils.extractAuthorities(claims);
+                UserDetails principal = User.withUsername(username)
+                        .password("")
+                        .authorities(authorities)
+                        .build();
 
-                if (jwtUtils.validateToken(jwt, userDetails)) {
+                if (jwtUtils.validateToken(claims, principal)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            principal,
                             null,
-                            userDetails.getAuthorities()
+                            authorities
                     );
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -64,5 +78,3 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 }
-
-
@@ -0,0 +1,68 @@
+package jb.wrk.tribe.demo.components;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * Reactive counterpart of JwtAuthenticationFilter. The bearer token arrives as the credentials of an
+ * unauthenticated token; the principal is rebuilt from the verified claims. Only a user whose security
+ * state is not cached yet is loaded, and that load runs off the event loop.
+ */
+@Component
+@Profile("reactive")
+public class JwtReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private final JwtUtils jwtUtils;
+    private final UserSecurityStateCache userSecurityStateCache;
+
+    public JwtReactiveAuthenticationManager(JwtUtils jwtUtils, UserSecurityStateCache userSecurityStateCache) {
+        this.jwtUtils = jwtUtils;
+        this.userSecurityStateCache = userSecurityStateCache;
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        final Claims claims;
+        try {
+            claims = jwtUtils.parseClaims((String) authentication.getCredentials());
+        } catch (JwtException | IllegalArgumentException e) {
+            return Mono.error(new BadCredentialsException("Invalid JWT Token: " + e.getMessage(), e));
+        }
+        final String username = claims.getSubject();
+        if (username == null) {
+            return Mono.error(new BadCredentialsException("JWT Token has no subject"));
+        }
+        final long version = jwtUtils.extractSecurityVersion(claims);
+
+        Boolean cached = userSecurityStateCache.acceptsIfCached(username, version);
+        Mono<Boolean> accepted = cached != null
+                ? Mono.just(cached)
+                : Mono.fromCallable(() -> userSecurityStateCache.accepts(username, version))
+                        .subscribeOn(Schedulers.boundedElastic());
+
+        return accepted.flatMap(ok -> {
+            if (!ok) {
+                return Mono.error(new BadCredentialsException("JWT Token has been revoked"));
+            }
+            List<GrantedAuthority> authorities = jwtUtils.extractAuthorities(claims);
+            UserDetails principal = User.withUsername(username)
+                    .password("")
+                    .authorities(authorities)
+                    .build();
+            return Mono.just(UsernamePasswordAuthenticationToken.authenticated(principal, null, authorities));
+        });
+    }
+}
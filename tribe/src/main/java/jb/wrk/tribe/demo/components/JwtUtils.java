@@ -1,31 +1,77 @@
 package jb.wrk.tribe.demo.components;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jb.wrk.tribe.demo.entities.User;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
 @Component
 public class JwtUtils {
 
-    // Use environment variable or default for local development
-    @Value("${app.jwt.secret:3cfa76ef14937c1c0ea519f8fc057a80fcd04a7420f8e8bcd0a7567c272e007b}")
-    private String jwtSecret;
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_SECURITY_VERSION = "ver";
+
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
+    private final long jwtExpirationMs;
+
+    // Tokens whose signature was already verified, each kept until its own "exp"
+    private final Cache<String, Claims> verifiedTokens;
+
+    public JwtUtils(
+            // Use environment variable or default for local development
+            @Value("${app.jwt.secret:3cfa76ef14937c1c0ea519f8fc057a80fcd04a7420f8e8bcd0a7567c272e007b}") String jwtSecret,
+            @Value("${app.jwt.expiration:86400000}") long jwtExpirationMs, // 24 hours in milliseconds
+            @Value("${app.jwt.cache.max-size:10000}") long verifiedTokenCacheSize) {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedTokenCacheSize)
+                .expireAfter(Expiry.creating(JwtUtils::timeToExpiry))
+                .build();
+    }
 
-    @Value("${app.jwt.expiration:86400000}") // 24 hours in milliseconds
-    private int jwtExpirationMs;
+    private static Duration timeToExpiry(String token, Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            return Duration.ZERO;
+        }
+        return Duration.between(Instant.now(), expiration.toInstant());
+    }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    /**
+     * Verifies the token signature and expiration once and returns its claims. Repeated calls with
+     * the same token are served from the verified-token cache until the token expires.
+     */
+    public Claims parseClaims(String token) {
+        Claims claims = verifiedTokens.getIfPresent(token);
+        if (claims == null) {
+            claims = jwtParser.parseSignedClaims(token).getPayload();
+            verifiedTokens.put(token, claims);
+        }
+        return claims;
     }
 
     public String extractUsername(String token) {
@@ -37,56 +83,85 @@ public class JwtUtils {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseClaims(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Authorities as they were granted when the token was issued.
+     */
+    public List<GrantedAuthority> extractAuthorities(Claims claims) {
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        if (roles == null) {
+            return List.of();
+        }
+        return roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+                .toList();
+    }
+
+    public long extractSecurityVersion(Claims claims) {
+        Number version = claims.get(CLAIM_SECURITY_VERSION, Number.class);
+        return version != null ? version.longValue() : 0L;
     }
 
     public Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return isTokenExpired(parseClaims(token));
+    }
+
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
+    }
+
+    public long getExpirationMs() {
+        return jwtExpirationMs;
     }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        // Carry everything the filter needs so it can authenticate without loading the user
+        claims.put(CLAIM_ROLES, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+        if (userDetails instanceof User user) {
+            claims.put(CLAIM_SECURITY_VERSION, user.getSecurityVersion());
+        }
         return createToken(claims, userDetails.getUsername());
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey(), Jwts.SIG.HS256)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + jwtExpirationMs))
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
         try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            return validateToken(parseClaims(token), userDetails);
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
 
+    /**
+     * Checks already parsed claims against the user, without touching the signature again.
+     */
+    public boolean validateToken(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        return username != null && username.equals(userDetails.getUsername()) && !isTokenExpired(claims);
+    }
+
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
+            parseClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
 }
-
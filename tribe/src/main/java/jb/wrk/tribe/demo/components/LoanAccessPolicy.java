@@ -0,0 +1,38 @@
+package jb.wrk.tribe.demo.components;
+
+import jb.wrk.tribe.demo.entities.Role;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Who may see a loan application, its documents and events: the user who submitted it, and loan
+ * officers and admins for every application.
+ */
+@Component
+public class LoanAccessPolicy {
+
+    private static final Set<String> STAFF_AUTHORITIES = Set.of(
+            "ROLE_" + Role.ADMIN.name(), "ROLE_" + Role.LOAN_OFFICER.name());
+
+    public boolean canAccess(Authentication authentication, String submittedBy) {
+        if (authentication == null) {
+            return false;
+        }
+        if (submittedBy != null && submittedBy.equals(authentication.getName())) {
+            return true;
+        }
+        return isStaff(authentication);
+    }
+
+    /**
+     * Whether the caller sees every application; everyone else only sees their own.
+     */
+    public boolean isStaff(Authentication authentication) {
+        return authentication != null && authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(STAFF_AUTHORITIES::contains);
+    }
+}
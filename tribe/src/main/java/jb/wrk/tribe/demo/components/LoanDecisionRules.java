@@ -0,0 +1,29 @@
+package jb.wrk.tribe.demo.components;
+
+import java.util.Map;
+
+/**
+ * The loan decision rule, defined once: the BPMN gateway reads the threshold from the
+ * {@value #THRESHOLD_VARIABLE} variable every process is started with, and the in-process fast path
+ * evaluates the same constant.
+ */
+public final class LoanDecisionRules {
+
+    public static final int AUTO_APPROVE_THRESHOLD = 700;
+    public static final String THRESHOLD_VARIABLE = "autoApproveThreshold";
+
+    private LoanDecisionRules() {
+    }
+
+    public static boolean isAutoApprovable(int creditScore) {
+        return creditScore >= AUTO_APPROVE_THRESHOLD;
+    }
+
+    /**
+     * Adds the threshold to the start variables (unless a caller set one explicitly).
+     */
+    public static Map<String, Object> withThreshold(Map<String, Object> variables) {
+        variables.putIfAbsent(THRESHOLD_VARIABLE, AUTO_APPROVE_THRESHOLD);
+        return variables;
+    }
+}
@@ -0,0 +1,155 @@
+package jb.wrk.tribe.demo.components;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jb.wrk.tribe.demo.dto.LoanEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory fan-out of loan events to stream subscribers, per process instance and per officer.
+ * Every subscriber has its own bounded buffer; a subscriber that falls behind until its buffer is full
+ * is disconnected (it can reconnect and will get the latest event again) so it never slows the
+ * publishing worker or other subscribers down.
+ */
+@Component
+public class LoanEventHub {
+
+    private static final Logger log = LoggerFactory.getLogger(LoanEventHub.class);
+
+    private final int bufferSize;
+    private final Map<Long, Set<Subscriber>> byProcess = new ConcurrentHashMap<>();
+    private final Map<String, Set<Subscriber>> byOfficer = new ConcurrentHashMap<>();
+    // Latest event per process, replayed to late subscribers (the process may already be done)
+    private final Cache<Long, LoanEvent> latest;
+    private final Counter droppedSubscribers;
+
+    public LoanEventHub(MeterRegistry meterRegistry,
+                        @Value("${app.loans.events.buffer-size:64}") int bufferSize,
+                        @Value("${app.loans.events.retention:10m}") Duration retention) {
+        this.bufferSize = bufferSize;
+        this.latest = Caffeine.newBuilder()
+                .expireAfterWrite(retention)
+                .maximumSize(100_000)
+                .build();
+        meterRegistry.gaugeMapSize("loans.events.process.streams", Tags.empty(), byProcess);
+        meterRegistry.gaugeMapSize("loans.events.officer.streams", Tags.empty(), byOfficer);
+        this.droppedSubscribers = meterRegistry.counter("loans.events.dropped.subscribers");
+    }
+
+    public void publish(LoanEvent event) {
+        latest.put(event.processInstanceKey(), event);
+        deliver(byProcess.get(event.processInstanceKey()), event);
+        if (event.submittedBy() != null) {
+            deliver(byOfficer.get(event.submittedBy()), event);
+        }
+    }
+
+    public Optional<LoanEvent> latest(long processInstanceKey) {
+        return Optional.ofNullable(latest.getIfPresent(processInstanceKey));
+    }
+
+    /**
+     * Events of one process instance, starting with the latest known one. Completes after the final
+     * decision. Nothing is registered until the stream is subscribed to, once per subscription.
+     */
+    public Flux<LoanEvent> subscribeToProcess(long processInstanceKey) {
+        return Flux.defer(() -> {
+            Subscriber subscriber = new Subscriber(bufferSize);
+            register(byProcess, processInstanceKey, subscriber);
+            // Replayed after registering, so an event published in between is not lost (at worst seen twice)
+            latest(processInstanceKey).ifPresent(subscriber::emit);
+            return subscriber.flux()
+                    .takeUntil(LoanEvent::isTerminal)
+                    .doFinally(signal -> unregister(byProcess, processInstanceKey, subscriber));
+        });
+    }
+
+    /**
+     * Completes with the final decision of the process, or with null when it is not reached within the
+     * timeout. Works for decisions made before the call as long as they are retained.
+     */
+    public CompletableFuture<LoanEvent> awaitDecision(long processInstanceKey, Duration timeout) {
+        return subscribeToProcess(processInstanceKey)
+                .filter(LoanEvent::isTerminal)
+                .next()
+                .timeout(timeout, Mono.empty())
+                .onErrorResume(ex -> Mono.empty())
+                .toFuture();
+    }
+
+    /**
+     * Events of every process the officer started, from now on.
+     */
+    public Flux<LoanEvent> subscribeToOfficer(String officer) {
+        return Flux.defer(() -> {
+            Subscriber subscriber = new Subscriber(bufferSize);
+            register(byOfficer, officer, subscriber);
+            return subscriber.flux()
+                    .doFinally(signal -> unregister(byOfficer, officer, subscriber));
+        });
+    }
+
+    private void deliver(Set<Subscriber> subscribers, LoanEvent event) {
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.emit(event)) {
+                droppedSubscribers.increment();
+                log.info("Disconnecting slow loan event subscriber for process {}", event.processInstanceKey());
+                subscriber.disconnect();
+            }
+        }
+    }
+
+    private static <K> void register(Map<K, Set<Subscriber>> index, K key, Subscriber subscriber) {
+        index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+    }
+
+    private static <K> void unregister(Map<K, Set<Subscriber>> index, K key, Subscriber subscriber) {
+        index.computeIfPresent(key, (k, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private static final class Subscriber {
+
+        private final Sinks.Many<LoanEvent> sink;
+
+        Subscriber(int bufferSize) {
+            this.sink = Sinks.many().unicast().onBackpressureBuffer(Queues.<LoanEvent>get(bufferSize).get());
+        }
+
+        Flux<LoanEvent> flux() {
+            return sink.asFlux();
+        }
+
+        // Sinks need serialized emission; workers publish from several threads
+        synchronized boolean emit(LoanEvent event) {
+            Sinks.EmitResult result = sink.tryEmitNext(event);
+            return result.isSuccess() || result == Sinks.EmitResult.FAIL_TERMINATED || result == Sinks.EmitResult.FAIL_CANCELLED;
+        }
+
+        synchronized void disconnect() {
+            sink.tryEmitError(new IllegalStateException("Subscriber too slow, disconnected"));
+        }
+    }
+}
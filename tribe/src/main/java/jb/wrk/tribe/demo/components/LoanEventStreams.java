@@ -0,0 +1,59 @@
+package jb.wrk.tribe.demo.components;
+
+import jb.wrk.tribe.demo.dto.LoanEvent;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Server-sent event streams of {@link LoanEventHub}, as both loan controllers (servlet and "reactive")
+ * serve them: one event per outcome, named after its status, with heartbeat comments in between.
+ */
+@Component
+public class LoanEventStreams {
+
+    // Comment lines keep idle event streams open through proxies
+    private static final Duration EVENT_HEARTBEAT = Duration.ofSeconds(15);
+
+    private final LoanEventHub loanEventHub;
+    private final LoanAccessPolicy loanAccessPolicy;
+
+    public LoanEventStreams(LoanEventHub loanEventHub, LoanAccessPolicy loanAccessPolicy) {
+        this.loanEventHub = loanEventHub;
+        this.loanAccessPolicy = loanAccessPolicy;
+    }
+
+    /**
+     * Events of one process instance the caller may see, or empty when its latest known event belongs to
+     * someone else.
+     */
+    public Optional<Flux<ServerSentEvent<LoanEvent>>> processEvents(long processInstanceKey, Authentication authentication) {
+        Optional<LoanEvent> known = loanEventHub.latest(processInstanceKey);
+        if (known.isPresent() && !loanAccessPolicy.canAccess(authentication, known.get().submittedBy())) {
+            return Optional.empty();
+        }
+        // The process may not have reported yet, so its events are checked one by one as well
+        return Optional.of(withHeartbeat(loanEventHub.subscribeToProcess(processInstanceKey)
+                .filter(event -> loanAccessPolicy.canAccess(authentication, event.submittedBy()))));
+    }
+
+    public Flux<ServerSentEvent<LoanEvent>> officerEvents(String officer) {
+        return withHeartbeat(loanEventHub.subscribeToOfficer(officer));
+    }
+
+    private static Flux<ServerSentEvent<LoanEvent>> withHeartbeat(Flux<LoanEvent> events) {
+        Flux<ServerSentEvent<LoanEvent>> data = events.map(event -> ServerSentEvent.builder(event)
+                .id(event.processInstanceKey() + "-" + event.occurredAt().toEpochMilli())
+                .event(event.status().name())
+                .build())
+                .share();
+        Flux<ServerSentEvent<LoanEvent>> heartbeat = Flux.interval(EVENT_HEARTBEAT)
+                .map(tick -> ServerSentEvent.<LoanEvent>builder().comment("heartbeat").build());
+        // Shared so the heartbeat can stop when the event stream completes without subscribing to the hub twice
+        return data.mergeWith(heartbeat.takeUntilOther(data.ignoreElements()));
+    }
+}
@@ -0,0 +1,103 @@
+package jb.wrk.tribe.demo.components;
+
+import jakarta.persistence.EntityManager;
+import jb.wrk.tribe.demo.dto.BatchStartResult;
+import jb.wrk.tribe.demo.dto.LoanApplicationRequest;
+import jb.wrk.tribe.demo.dto.LoanIntakeResult;
+import jb.wrk.tribe.demo.entities.LoanApplication;
+import jb.wrk.tribe.demo.repository.LoanApplicationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persists submitted loan applications and starts a loan approval process for each. Rows are written
+ * in JDBC batches (pooled sequence ids, hibernate.jdbc.batch_size, ordered inserts), and the process
+ * instance keys are recorded afterwards in one transaction, touching only that column.
+ */
+@Component
+public class LoanIntakeService {
+
+    private final LoanApplicationRepository loanApplicationRepository;
+    private final LoanProcessService loanProcessService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int flushSize;
+
+    public LoanIntakeService(LoanApplicationRepository loanApplicationRepository,
+                             LoanProcessService loanProcessService,
+                             EntityManager entityManager,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int flushSize) {
+        this.loanApplicationRepository = loanApplicationRepository;
+        this.loanProcessService = loanProcessService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.flushSize = Math.max(1, flushSize);
+    }
+
+    /**
+     * Persists the applications, then starts their processes. Results are in request order; an
+     * application whose process could not be started stays persisted as SUBMITTED.
+     */
+    public List<LoanIntakeResult> intake(List<LoanApplicationRequest> requests, String submittedBy) {
+        List<LoanApplication> applications = transactionTemplate.execute(status -> persist(requests, submittedBy));
+
+        LoanProcessService.Batch batch = loanProcessService.newBatch();
+        for (LoanApplication application : applications) {
+            batch.submit(processVariables(application, submittedBy));
+        }
+        List<BatchStartResult> started = batch.awaitResults();
+
+        List<LoanIntakeResult> results = new ArrayList<>(applications.size());
+        Map<Long, Long> processInstanceKeys = new HashMap<>();
+        for (int i = 0; i < applications.size(); i++) {
+            Long loanApplicationId = applications.get(i).getId();
+            BatchStartResult start = started.get(i);
+            results.add(new LoanIntakeResult(i, loanApplicationId, start.processInstanceKey(), start.error()));
+            if (start.isStarted()) {
+                processInstanceKeys.put(loanApplicationId, start.processInstanceKey());
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> recordProcessInstances(processInstanceKeys));
+        return results;
+    }
+
+    // Flushing and clearing per JDBC batch keeps the persistence context small for large intakes
+    private List<LoanApplication> persist(List<LoanApplicationRequest> requests, String submittedBy) {
+        List<LoanApplication> applications = new ArrayList<>(requests.size());
+        for (LoanApplicationRequest request : requests) {
+            LoanApplication application = request.toEntity();
+            application.setSubmittedBy(submittedBy);
+            entityManager.persist(application);
+            applications.add(application);
+            if (applications.size() % flushSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return applications;
+    }
+
+    // Targeted updates: a status the projection has already written for these rows is left alone
+    private void recordProcessInstances(Map<Long, Long> processInstanceKeys) {
+        processInstanceKeys.forEach((loanApplicationId, processInstanceKey) ->
+                loanApplicationRepository.recordProcessInstance(loanApplicationId, String.valueOf(processInstanceKey)));
+    }
+
+    private static Map<String, Object> processVariables(LoanApplication application, String submittedBy) {
+        Map<String, Object> vars = new HashMap<>();
+        vars.put("submittedBy", submittedBy);
+        vars.put("loanApplicationId", application.getId());
+        vars.put("applicantEmail", application.getApplicantEmail());
+        if (application.getCreditScore() != null) {
+            vars.put("creditScore", application.getCreditScore());
+        }
+        return vars;
+    }
+}
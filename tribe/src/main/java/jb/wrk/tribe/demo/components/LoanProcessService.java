@@ -0,0 +1,148 @@
+package jb.wrk.tribe.demo.components;
+
+import io.camunda.zeebe.client.ZeebeClient;
+import io.camunda.zeebe.client.api.ZeebeFuture;
+import io.camunda.zeebe.client.api.response.ProcessInstanceEvent;
+import jb.wrk.tribe.demo.dto.BatchStartResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Starts loan approval process instances. Returns the client's future so callers decide whether to
+ * block (servlet controllers) or compose it (reactive controllers). Every instance gets the
+ * auto-approve threshold from {@link LoanDecisionRules}; pre-scored applications may take the
+ * {@link StraightThroughApproval} fast path.
+ */
+@Component
+public class LoanProcessService {
+
+    public static final String PROCESS_ID = "loanApprovalProcess";
+    public static final String PARALLEL_PROCESS_ID = "loanApprovalProcessParallel";
+
+    /**
+     * Deployed versions of the loan approval process: checks one after the other (loan-approval.bpmn)
+     * or documents and credit checked concurrently (loan-approval-parallel.bpmn).
+     */
+    public enum Variant {
+        SEQUENTIAL(PROCESS_ID),
+        PARALLEL(PARALLEL_PROCESS_ID);
+
+        private final String bpmnProcessId;
+
+        Variant(String bpmnProcessId) {
+            this.bpmnProcessId = bpmnProcessId;
+        }
+
+        public String bpmnProcessId() {
+            return bpmnProcessId;
+        }
+
+        public static Variant from(String name) {
+            for (Variant variant : values()) {
+                if (variant.name().equalsIgnoreCase(name)) {
+                    return variant;
+                }
+            }
+            throw new IllegalArgumentException("Unknown process variant " + name);
+        }
+    }
+
+    private final ZeebeClient zeebeClient;
+    private final StraightThroughApproval straightThroughApproval;
+    private final int batchMaxInFlight;
+
+    public LoanProcessService(ZeebeClient zeebeClient,
+                              StraightThroughApproval straightThroughApproval,
+                              @Value("${app.loans.batch.max-in-flight:64}") int batchMaxInFlight) {
+        this.zeebeClient = zeebeClient;
+        this.straightThroughApproval = straightThroughApproval;
+        this.batchMaxInFlight = batchMaxInFlight;
+    }
+
+    public ZeebeFuture<ProcessInstanceEvent> startLoanProcess(Map<String, Object> variables) {
+        return startLoanProcess(Variant.SEQUENTIAL, variables);
+    }
+
+    public ZeebeFuture<ProcessInstanceEvent> startLoanProcess(Variant variant, Map<String, Object> variables) {
+        Map<String, Object> vars = LoanDecisionRules.withThreshold(new HashMap<>(variables));
+        if (straightThroughApproval.appliesTo(vars)) {
+            return straightThroughApproval.start(variant.bpmnProcessId(), vars);
+        }
+        return zeebeClient
+                .newCreateInstanceCommand()
+                .bpmnProcessId(variant.bpmnProcessId())
+                .latestVersion()
+                .variables(vars)
+                .send();
+    }
+
+    public Batch newBatch() {
+        return new Batch(batchMaxInFlight);
+    }
+
+    /**
+     * Pipelines process starts for many applications. At most {@code maxInFlight} create commands are
+     * outstanding at any time; {@link #submit} waits for a free slot, so items can be fed while the
+     * request body is still being read.
+     */
+    public final class Batch {
+
+        private final Semaphore window;
+        private final List<CompletableFuture<BatchStartResult>> results = new ArrayList<>();
+
+        private Batch(int maxInFlight) {
+            this.window = new Semaphore(maxInFlight);
+        }
+
+        public void submit(Map<String, Object> variables) {
+            int index = results.size();
+            try {
+                window.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results.add(CompletableFuture.completedFuture(BatchStartResult.failed(index, "Interrupted")));
+                return;
+            }
+            CompletableFuture<BatchStartResult> result;
+            try {
+                result = startLoanProcess(variables)
+                        .toCompletableFuture()
+                        .handle((event, ex) -> ex == null
+                                ? BatchStartResult.started(index, event.getProcessInstanceKey())
+                                : BatchStartResult.failed(index, rootMessage(ex)));
+            } catch (RuntimeException e) {
+                result = CompletableFuture.completedFuture(BatchStartResult.failed(index, rootMessage(e)));
+            }
+            result.whenComplete((r, ex) -> window.release());
+            results.add(result);
+        }
+
+        /**
+         * Records an item that could not be submitted, e.g. an unparsable line, so indexes stay aligned.
+         */
+        public void reject(String error) {
+            results.add(CompletableFuture.completedFuture(BatchStartResult.failed(results.size(), error)));
+        }
+
+        public int size() {
+            return results.size();
+        }
+
+        public List<BatchStartResult> awaitResults() {
+            return results.stream().map(CompletableFuture::join).toList();
+        }
+    }
+
+    private static String rootMessage(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+}
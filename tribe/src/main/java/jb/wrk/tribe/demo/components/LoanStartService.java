@@ -0,0 +1,154 @@
+package jb.wrk.tribe.demo.components;
+
+import jb.wrk.tribe.demo.dto.LoanEvent;
+import jb.wrk.tribe.demo.dto.LoanStartRequest;
+import jb.wrk.tribe.demo.dto.StartedProcess;
+import jb.wrk.tribe.demo.entities.LoanApplication;
+import jb.wrk.tribe.demo.repository.LoanApplicationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The options of a single process start as both loan controllers (servlet and "reactive") offer them:
+ * start variables with the submitter and claim-checked applicationData, the process variant, an
+ * Idempotency-Key for replays and the await timeout. Invalid options raise IllegalArgumentException
+ * with the message for the 400 response.
+ */
+@Component
+public class LoanStartService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int IDEMPOTENCY_KEY_MAX_LENGTH = 255;
+    // Process variable naming the user who started the process; routes its events to that user's feed
+    private static final String SUBMITTED_BY = "submittedBy";
+
+    private final LoanProcessService loanProcessService;
+    private final IdempotencyService idempotencyService;
+    private final BlobStore blobStore;
+    private final LoanEventHub loanEventHub;
+    private final LoanApplicationRepository loanApplicationRepository;
+    private final Duration awaitMax;
+
+    public LoanStartService(LoanProcessService loanProcessService,
+                            IdempotencyService idempotencyService,
+                            BlobStore blobStore,
+                            LoanEventHub loanEventHub,
+                            LoanApplicationRepository loanApplicationRepository,
+                            @Value("${app.loans.await.max:PT30S}") Duration awaitMax) {
+        this.loanProcessService = loanProcessService;
+        this.idempotencyService = idempotencyService;
+        this.blobStore = blobStore;
+        this.loanEventHub = loanEventHub;
+        this.loanApplicationRepository = loanApplicationRepository;
+        this.awaitMax = awaitMax;
+    }
+
+    public Duration await(String await) {
+        Duration timeout;
+        try {
+            timeout = DurationStyle.detectAndParse(await);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid await duration");
+        }
+        if (timeout.isNegative() || timeout.compareTo(awaitMax) > 0) {
+            throw new IllegalArgumentException("await must be between 0 and " + awaitMax);
+        }
+        return timeout;
+    }
+
+    public void checkIdempotencyKey(String idempotencyKey) {
+        if (idempotencyKey != null && idempotencyKey.length() > IDEMPOTENCY_KEY_MAX_LENGTH) {
+            throw new IllegalArgumentException(IDEMPOTENCY_KEY_HEADER + " is too long");
+        }
+    }
+
+    public static boolean hasIdempotencyKey(String idempotencyKey) {
+        return idempotencyKey != null && !idempotencyKey.isBlank();
+    }
+
+    /**
+     * Claim check: applicationData goes to the blob store and only its reference becomes a variable, so
+     * the broker does not store it or send it with every job. A creditScore parameter overrides the body's.
+     */
+    public Map<String, Object> variables(LoanStartRequest application, Integer creditScore, String submittedBy) {
+        LoanStartRequest request = application != null ? application : new LoanStartRequest();
+        Map<String, Object> vars = request.toVariables();
+        vars.put(SUBMITTED_BY, submittedBy);
+        if (request.hasApplicationData()) {
+            vars.put("applicationDataRef", blobStore.putJson(request.getApplicationData()));
+        }
+        if (creditScore != null) {
+            vars.put("creditScore", creditScore);
+        }
+        return vars;
+    }
+
+    /**
+     * Starts the process, or with an Idempotency-Key replays the start made for the same request. Keyed
+     * starts wait for the claim and the broker, so callers on an event loop must run them elsewhere.
+     */
+    public IdempotencyService.Outcome start(LoanProcessService.Variant variant, Map<String, Object> vars,
+                                           String idempotencyKey, String submittedBy) {
+        if (!hasIdempotencyKey(idempotencyKey)) {
+            return new IdempotencyService.Outcome(StartedProcess.of(loanProcessService.startLoanProcess(variant, vars).join()), false);
+        }
+        // A retry has to start the same process with the same variables to be replayed
+        Map<String, Object> request = Map.of("variant", variant.name(), "variables", vars);
+        return idempotencyService.execute(submittedBy, idempotencyKey, request,
+                () -> StartedProcess.of(loanProcessService.startLoanProcess(variant, vars).join()));
+    }
+
+    /**
+     * Unkeyed start that completes with the broker's answer instead of waiting for it.
+     */
+    public CompletableFuture<StartedProcess> startAsync(LoanProcessService.Variant variant, Map<String, Object> vars) {
+        return loanProcessService.startLoanProcess(variant, vars).toCompletableFuture().thenApply(StartedProcess::of);
+    }
+
+    /**
+     * Completes with the decision of the process, or with null when it is not known after the timeout.
+     * LoanEventHub is in-memory, so it only sees decisions made by workers in this JVM; when it times out,
+     * the status projected into loan_applications (written behind by whichever node ran the worker) is
+     * checked instead. That finds applications saved through intake, whose rows record the process
+     * instance; a bare /start has no row, so a decision made on another node answers 202 for it.
+     */
+    public CompletableFuture<LoanEvent> awaitDecision(long processInstanceKey, Duration timeout) {
+        return Mono.fromFuture(() -> loanEventHub.awaitDecision(processInstanceKey, timeout))
+                .switchIfEmpty(Mono.fromCallable(() -> projectedDecision(processInstanceKey))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .toFuture();
+    }
+
+    private LoanEvent projectedDecision(long processInstanceKey) {
+        return loanApplicationRepository.findByProcessInstanceId(String.valueOf(processInstanceKey))
+                .map(application -> new LoanEvent(processInstanceKey, application.getId(), application.getSubmittedBy(),
+                        application.getStatus(), application.getCreditScore(), changedAt(application)))
+                .filter(LoanEvent::isTerminal)
+                .orElse(null);
+    }
+
+    private static Instant changedAt(LoanApplication application) {
+        return application.getStatusChangedAt() != null
+                ? application.getStatusChangedAt().atZone(ZoneId.systemDefault()).toInstant()
+                : null;
+    }
+
+    public static Map<String, Object> response(StartedProcess process, Map<String, Object> vars) {
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("processInstanceKey", process.processInstanceKey());
+        resp.put("bpmnProcessId", process.bpmnProcessId());
+        resp.put("version", process.version());
+        resp.put("variables", vars);
+        return resp;
+    }
+}
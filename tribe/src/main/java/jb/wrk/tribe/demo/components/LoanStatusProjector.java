@@ -0,0 +1,124 @@
+package jb.wrk.tribe.demo.components;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jb.wrk.tribe.demo.dto.LoanStatusUpdate;
+import jb.wrk.tribe.demo.repository.LoanApplicationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind projection of worker outcomes onto loan_applications. Workers only enqueue an update;
+ * a scheduled flusher drains the queue, coalesces updates per application so just the latest state is
+ * written, and applies them in one transaction of targeted updates. The queue is bounded: when it is full
+ * a worker waits up to offer-timeout, then the update is dropped and counted. Updates of a failed flush
+ * are kept and retried by the next one. The queue is flushed on shutdown.
+ */
+@Component
+public class LoanStatusProjector {
+
+    private static final Logger log = LoggerFactory.getLogger(LoanStatusProjector.class);
+
+    private final LoanApplicationRepository loanApplicationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<LoanStatusUpdate> queue;
+    private final Duration offerTimeout;
+    private final int maxBatchSize;
+    private final int retryCapacity;
+    // Coalesced updates of a failed flush, applied before newer ones by the next flush
+    private final Map<Long, LoanStatusUpdate> retry = new LinkedHashMap<>();
+    private final Counter dropped;
+    private final Counter coalesced;
+    private final Timer flushTimer;
+
+    public LoanStatusProjector(LoanApplicationRepository loanApplicationRepository,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.loans.projection.queue-capacity:10000}") int queueCapacity,
+                               @Value("${app.loans.projection.offer-timeout:1s}") Duration offerTimeout,
+                               @Value("${app.loans.projection.max-batch-size:1000}") int maxBatchSize) {
+        this.loanApplicationRepository = loanApplicationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.offerTimeout = offerTimeout;
+        this.maxBatchSize = maxBatchSize;
+        this.retryCapacity = queueCapacity;
+        meterRegistry.gaugeCollectionSize("loans.projection.queue.size", Tags.empty(), queue);
+        this.dropped = meterRegistry.counter("loans.projection.dropped");
+        this.coalesced = meterRegistry.counter("loans.projection.coalesced");
+        this.flushTimer = Timer.builder("loans.projection.flush")
+                .description("Time to write one coalesced batch of loan status updates")
+                .register(meterRegistry);
+    }
+
+    public void publish(LoanStatusUpdate update) {
+        try {
+            if (!queue.offer(update, offerTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                dropped.increment();
+                log.warn("Loan status projection queue full, dropped update for loan application {}", update.loanApplicationId());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.loans.projection.flush-interval:500ms}")
+    public synchronized void flush() {
+        List<LoanStatusUpdate> drained = new ArrayList<>();
+        while (queue.drainTo(drained, maxBatchSize) > 0 || !retry.isEmpty()) {
+            Map<Long, LoanStatusUpdate> latest = new LinkedHashMap<>(retry);
+            retry.clear();
+            int before = latest.size();
+            for (LoanStatusUpdate update : drained) {
+                latest.merge(update.loanApplicationId(), update, LoanStatusUpdate::merge);
+            }
+            coalesced.increment(drained.size() - (latest.size() - before));
+            try {
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> apply(latest)));
+            } catch (RuntimeException e) {
+                keepForRetry(latest);
+                log.warn("Failed to project {} loan status updates, retrying on the next flush: {}", latest.size(), e.getMessage());
+                return;
+            }
+            drained.clear();
+        }
+    }
+
+    // Only the projected columns are written, so the process instance id recorded by intake is never overwritten
+    private void apply(Map<Long, LoanStatusUpdate> latest) {
+        latest.values().forEach(update -> loanApplicationRepository.projectStatus(update.loanApplicationId(),
+                update.status(), update.creditScore(), update.occurredAt()));
+    }
+
+    private void keepForRetry(Map<Long, LoanStatusUpdate> failed) {
+        for (LoanStatusUpdate update : failed.values()) {
+            if (retry.size() < retryCapacity) {
+                retry.put(update.loanApplicationId(), update);
+            } else {
+                dropped.increment();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,72 @@
+package jb.wrk.tribe.demo.components;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password authentication (and with it the BCrypt match) on a small dedicated pool with a
+ * bounded queue, so a login burst cannot occupy the servlet threads other endpoints depend on.
+ * When the queue is full the submission fails fast with {@link RejectedExecutionException}.
+ */
+@Component
+public class PasswordCheckExecutor {
+
+    private final AuthenticationManager authenticationManager;
+    private final ThreadPoolExecutor executor;
+    private final Timer hashTimer;
+
+    public PasswordCheckExecutor(AuthenticationManager authenticationManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.auth.login.threads:0}") int threads,
+                                 @Value("${app.auth.login.queue-capacity:100}") int queueCapacity) {
+        this.authenticationManager = authenticationManager;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-check-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // executor.queued / executor.active / executor.completed tagged name=auth.login
+        new ExecutorServiceMetrics(executor, "auth.login", Tags.empty()).bindTo(meterRegistry);
+        this.hashTimer = Timer.builder("auth.login.password.check")
+                .description("Time spent authenticating a username and password, excluding queue wait")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Authenticates on the password-check pool. The returned future fails with
+     * {@link RejectedExecutionException} right away when the pool is saturated.
+     */
+    public CompletableFuture<Authentication> authenticate(Authentication credentials) {
+        try {
+            return CompletableFuture.supplyAsync(
+                    () -> hashTimer.record(() -> authenticationManager.authenticate(credentials)), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
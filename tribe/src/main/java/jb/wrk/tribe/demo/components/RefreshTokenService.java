@@ -0,0 +1,105 @@
+package jb.wrk.tribe.demo.components;
+
+import jb.wrk.tribe.demo.entities.RefreshToken;
+import jb.wrk.tribe.demo.entities.User;
+import jb.wrk.tribe.demo.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Issues and rotates opaque refresh tokens. Verifying a refresh token is a hash plus one indexed
+ * lookup, so renewing an expired access token never goes through the password encoder again.
+ */
+@Component
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration refreshTokenValidity;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${app.jwt.refresh-expiration:30d}") Duration refreshTokenValidity) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenValidity = refreshTokenValidity;
+    }
+
+    /**
+     * Result of a successful rotation: the owner and the refresh token that replaces the presented one.
+     */
+    public record Rotation(User user, String refreshToken) {}
+
+    @Transactional
+    public String issue(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(hash(token), user, Instant.now().plus(refreshTokenValidity)));
+        return token;
+    }
+
+    /**
+     * Consumes the presented token and issues its successor. Presenting an already rotated token
+     * means it was copied, so every outstanding token of that user is revoked. The token row is locked,
+     * so of two concurrent rotations only the first succeeds and the second counts as reuse.
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public Rotation rotate(String presentedToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHashForUpdate(hash(presentedToken))
+                .orElseThrow(() -> new BadCredentialsException("Unknown refresh token"));
+        User user = current.getUser();
+
+        if (current.isRevoked()) {
+            int revoked = refreshTokenRepository.revokeAllForUser(user);
+            log.warn("Refresh token reuse detected for user {}, revoked {} tokens", user.getUsername(), revoked);
+            throw new BadCredentialsException("Refresh token already used");
+        }
+        if (current.isExpired(Instant.now())) {
+            throw new BadCredentialsException("Refresh token expired");
+        }
+        if (!user.isEnabled() || !user.isAccountNonLocked() || current.getSecurityVersion() != user.getSecurityVersion()) {
+            current.setRevoked(true);
+            throw new BadCredentialsException("Refresh token revoked");
+        }
+
+        current.setRevoked(true);
+        return new Rotation(user, issue(user));
+    }
+
+    /**
+     * Removes expired tokens. Revoked ones are kept until they expire, so reuse is still detected.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-purge-interval:PT1H}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpiredBefore(Instant.now());
+        if (purged > 0) {
+            log.info("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package jb.wrk.tribe.demo.components;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jb.wrk.tribe.config.CreditBureauProperties;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decorates a {@link CreditBureauClient} with the protections a slow bureau needs:
+ * <ul>
+ *     <li>a per-call timeout,</li>
+ *     <li>a bulkhead limiting concurrent calls; a call finding it full fails right away, so the caller
+ *     (a cache load or the batcher's scheduler thread) never waits for a slot,</li>
+ *     <li>an optional hedged second call when the first is slower than the observed p95.</li>
+ * </ul>
+ * Bulk inquiries share the timeout and the bulkhead (one permit per call) but are not hedged.
+ * Together they bound the tail latency of a check-credit job to roughly hedge delay plus call timeout.
+ */
+public class ResilientCreditBureauClient implements CreditBureauClient, AutoCloseable {
+
+    private final CreditBureauClient delegate;
+    private final CreditBureauProperties properties;
+    private final Semaphore bulkhead;
+    private final ScheduledExecutorService scheduler;
+    private final Timer callTimer;
+    private final Counter hedgeCounter;
+    private volatile long hedgeDelayMillis;
+
+    public ResilientCreditBureauClient(CreditBureauClient delegate, CreditBureauProperties properties, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.bulkhead = new Semaphore(properties.getMaxConcurrentCalls());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "credit-bureau-hedge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.callTimer = Timer.builder("credit.bureau.calls")
+                .description("Latency of single credit bureau calls")
+                .publishPercentiles(0.95)
+                .register(meterRegistry);
+        this.hedgeCounter = Counter.builder("credit.bureau.hedges")
+                .description("Hedged second calls sent because the first was slower than p95")
+                .register(meterRegistry);
+        meterRegistry.gauge("credit.bureau.bulkhead.available", bulkhead, Semaphore::availablePermits);
+        this.hedgeDelayMillis = properties.getHedge().getInitialDelay().toMillis();
+        scheduler.scheduleAtFixedRate(this::updateHedgeDelay, 5, 5, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public CompletableFuture<Integer> fetchScore(String applicant) {
+        if (!properties.getHedge().isEnabled()) {
+            return attempt(applicant, true);
+        }
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        attempt(applicant, true).whenComplete((score, ex) -> settle(result, outstanding, score, ex));
+        scheduler.schedule(() -> {
+            if (result.isDone() || !bulkhead.tryAcquire()) {
+                return;
+            }
+            outstanding.incrementAndGet();
+            hedgeCounter.increment();
+            attempt(applicant, false).whenComplete((score, ex) -> settle(result, outstanding, score, ex));
+        }, hedgeDelayMillis, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Integer>> fetchScores(Collection<String> applicants) {
+        if (!bulkhead.tryAcquire()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Credit bureau bulkhead is full"));
+        }
+        CompletableFuture<Map<String, Integer>> call;
+        try {
+            call = delegate.fetchScores(applicants)
+                    .orTimeout(properties.getCallTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        return call.whenComplete((scores, ex) -> bulkhead.release());
+    }
+
+    // First success wins; the call fails only when every attempt has failed
+    private static void settle(CompletableFuture<Integer> result, AtomicInteger outstanding, Integer score, Throwable ex) {
+        if (ex == null) {
+            result.complete(score);
+        } else if (outstanding.decrementAndGet() == 0) {
+            result.completeExceptionally(ex);
+        }
+    }
+
+    /**
+     * One bulkhead-guarded, time-limited call. Hedges acquire their permit before calling.
+     */
+    private CompletableFuture<Integer> attempt(String applicant, boolean acquirePermit) {
+        if (acquirePermit && !bulkhead.tryAcquire()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Credit bureau bulkhead is full"));
+        }
+        long start = System.nanoTime();
+        CompletableFuture<Integer> call;
+        try {
+            call = delegate.fetchScore(applicant)
+                    .orTimeout(properties.getCallTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        return call.whenComplete((score, ex) -> {
+            bulkhead.release();
+            if (ex == null) {
+                callTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private void updateHedgeDelay() {
+        for (ValueAtPercentile value : callTimer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == 0.95 && value.value() > 0) {
+                long p95 = (long) value.value(TimeUnit.MILLISECONDS);
+                long min = properties.getHedge().getMinDelay().toMillis();
+                long max = properties.getCallTimeout().toMillis();
+                hedgeDelayMillis = Math.max(min, Math.min(max, p95));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,136 @@
+package jb.wrk.tribe.demo.components;
+
+import io.camunda.zeebe.client.ZeebeClient;
+import io.camunda.zeebe.client.api.ZeebeFuture;
+import io.camunda.zeebe.client.api.response.ProcessInstanceEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jb.wrk.tribe.demo.dto.AutoApprovalResult;
+import jb.wrk.tribe.demo.dto.AutoApprovalVariables;
+import jb.wrk.tribe.demo.dto.CreditCheckResult;
+import jb.wrk.tribe.demo.dto.CreditCheckVariables;
+import jb.wrk.tribe.demo.dto.DocumentValidationResult;
+import jb.wrk.tribe.demo.dto.DocumentValidationVariables;
+import jb.wrk.tribe.demo.dto.LoanEvent;
+import jb.wrk.tribe.demo.dto.LoanStatusUpdate;
+import jb.wrk.tribe.demo.entities.LoanStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Opt-in fast path for applications that arrive with a credit score the gateway would auto-approve.
+ * The credit check and auto-approval run in-process with the same services the workers use, and the
+ * process instance is created with their variables already set, starting at the end event. The
+ * decision is thus recorded in the process without the validate-docs, check-credit and auto-approve
+ * job round trips. Applications with uploaded documents take it only once every document has a saved,
+ * passing check; documentsValid and the document report come from those checks.
+ */
+@Component
+public class StraightThroughApproval {
+
+    // Both loan approval process variants are started right before their end event
+    private static final String END_EVENT_ID = "EndEvent_1";
+
+    private final ZeebeClient zeebeClient;
+    private final CreditCheckService creditCheckService;
+    private final AutoApprovalService autoApprovalService;
+    private final DocumentValidationService documentValidationService;
+    private final LoanEventHub loanEventHub;
+    private final LoanStatusProjector loanStatusProjector;
+    private final boolean enabled;
+    private final Counter decisions;
+
+    public StraightThroughApproval(ZeebeClient zeebeClient,
+                                   CreditCheckService creditCheckService,
+                                   AutoApprovalService autoApprovalService,
+                                   DocumentValidationService documentValidationService,
+                                   LoanEventHub loanEventHub,
+                                   LoanStatusProjector loanStatusProjector,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.loans.fast-path.enabled:false}") boolean enabled) {
+        this.zeebeClient = zeebeClient;
+        this.creditCheckService = creditCheckService;
+        this.autoApprovalService = autoApprovalService;
+        this.documentValidationService = documentValidationService;
+        this.loanEventHub = loanEventHub;
+        this.loanStatusProjector = loanStatusProjector;
+        this.enabled = enabled;
+        this.decisions = meterRegistry.counter("loans.fast.path.decisions");
+    }
+
+    /**
+     * Whether the application can skip the broker jobs: the fast path is enabled, the supplied score
+     * meets the auto-approve rule and all documents uploaded for the application passed their checks.
+     */
+    public boolean appliesTo(Map<String, Object> variables) {
+        return enabled
+                && variables.get("creditScore") instanceof Integer creditScore
+                && LoanDecisionRules.isAutoApprovable(creditScore)
+                && documentValidationService.allDocumentsPassed(loanApplicationId(variables));
+    }
+
+    public ZeebeFuture<ProcessInstanceEvent> start(String bpmnProcessId, Map<String, Object> variables) {
+        Long loanApplicationId = loanApplicationId(variables);
+        // Every document is checked already (see appliesTo), so this combines saved results without waiting
+        DocumentValidationResult documents = documentValidationService
+                .validateDocuments(new DocumentValidationVariables(loanApplicationId)).join();
+        if (!documents.documentsValid()) {
+            // A document was uploaded since appliesTo; the process validates it as usual
+            return zeebeClient.newCreateInstanceCommand()
+                    .bpmnProcessId(bpmnProcessId)
+                    .latestVersion()
+                    .variables(variables)
+                    .send();
+        }
+        CreditCheckResult credit = creditCheckService.checkCredit(new CreditCheckVariables(loanApplicationId,
+                (Integer) variables.get("creditScore"), (String) variables.get("applicantEmail")));
+        AutoApprovalResult approval = autoApprovalService.autoApprove(new AutoApprovalVariables(loanApplicationId, credit.creditScore()));
+
+        Map<String, Object> decided = new HashMap<>(variables);
+        decided.put("documentsValid", documents.documentsValid());
+        decided.put("validationTimestamp", documents.validationTimestamp());
+        if (documents.documentReportRef() != null) {
+            decided.put("documentReportRef", documents.documentReportRef());
+        }
+        decided.put("creditScore", credit.creditScore());
+        decided.put("creditCheckComplete", credit.creditCheckComplete());
+        decided.put("creditCheckTimestamp", credit.creditCheckTimestamp());
+        decided.put("approvalStatus", approval.approvalStatus());
+        decided.put("decisionPath", "straight-through");
+
+        ZeebeFuture<ProcessInstanceEvent> started = zeebeClient.newCreateInstanceCommand()
+                .bpmnProcessId(bpmnProcessId)
+                .latestVersion()
+                .variables(decided)
+                .startBeforeElement(END_EVENT_ID)
+                .send();
+        started.whenComplete((event, ex) -> {
+            if (ex == null) {
+                decisions.increment();
+                publish(event.getProcessInstanceKey(), loanApplicationId, (String) variables.get("submittedBy"),
+                        LoanStatus.valueOf(approval.approvalStatus()), credit.creditScore());
+            }
+        });
+        return started;
+    }
+
+    private static Long loanApplicationId(Map<String, Object> variables) {
+        return variables.get("loanApplicationId") instanceof Number id ? id.longValue() : null;
+    }
+
+    // Same notifications the workers send, so streams, ?await and the projection see no difference
+    private void publish(long processInstanceKey, Long loanApplicationId, String submittedBy, LoanStatus status, int creditScore) {
+        Instant now = Instant.now();
+        loanEventHub.publish(new LoanEvent(processInstanceKey, loanApplicationId, submittedBy, status, creditScore, now));
+        if (loanApplicationId != null) {
+            loanStatusProjector.publish(new LoanStatusUpdate(loanApplicationId, status, creditScore,
+                    LocalDateTime.ofInstant(now, ZoneId.systemDefault())));
+        }
+    }
+}
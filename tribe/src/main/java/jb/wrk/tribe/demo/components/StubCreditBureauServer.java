@@ -0,0 +1,138 @@
+package jb.wrk.tribe.demo.components;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jb.wrk.tribe.config.CreditBureauProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for the credit bureau HTTP API, enabled with app.credit-bureau.stub.enabled.
+ * Scores are derived from the applicant so repeated lookups agree; latency is configurable,
+ * including a share of slow answers.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.credit-bureau.stub", name = "enabled", havingValue = "true")
+public class StubCreditBureauServer {
+
+    private static final Logger log = LoggerFactory.getLogger(StubCreditBureauServer.class);
+
+    private final CreditBureauProperties.Stub settings;
+    private final ObjectMapper objectMapper;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public StubCreditBureauServer(CreditBureauProperties properties, ObjectMapper objectMapper) {
+        this.settings = properties.getStub();
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), settings.getPort()), 0);
+        server.createContext("/scores/bulk", this::handleBulk);
+        server.createContext("/scores", this::handleScore);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.start();
+        log.info("Stub credit bureau listening on {}", getBaseUri());
+    }
+
+    public URI getBaseUri() {
+        return URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort());
+    }
+
+    private void handleScore(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String applicant = applicant(exchange.getRequestURI().getRawQuery());
+            if (applicant == null) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            simulateLatency();
+            respond(exchange, Map.of("applicant", applicant, "score", scoreFor(applicant)));
+        }
+    }
+
+    // One round trip for the whole batch, costing about as much as a single inquiry
+    private void handleBulk(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            List<?> applicants = objectMapper.readValue(exchange.getRequestBody(), List.class);
+            simulateLatency();
+            Map<String, Integer> scores = new LinkedHashMap<>();
+            for (Object applicant : applicants) {
+                scores.put(String.valueOf(applicant), scoreFor(String.valueOf(applicant)));
+            }
+            respond(exchange, Map.of("scores", scores));
+        }
+    }
+
+    private void respond(HttpExchange exchange, Object payload) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(payload);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void simulateLatency() {
+        sleep(ThreadLocalRandom.current().nextDouble() < settings.getSlowRatio()
+                ? settings.getSlowLatency()
+                : settings.getLatency());
+    }
+
+    static int scoreFor(String applicant) {
+        return 300 + Math.floorMod(applicant.hashCode(), 551);
+    }
+
+    private static String applicant(String rawQuery) {
+        if (rawQuery == null) {
+            return null;
+        }
+        for (String pair : rawQuery.split("&")) {
+            if (pair.startsWith("applicant=")) {
+                return URLDecoder.decode(pair.substring("applicant=".length()), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
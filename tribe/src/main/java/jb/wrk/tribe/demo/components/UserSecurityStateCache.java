@@ -0,0 +1,58 @@
+package jb.wrk.tribe.demo.components;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jb.wrk.tribe.demo.dto.UserSecurityState;
+import jb.wrk.tribe.demo.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Small in-memory view of user security versions used by JwtAuthenticationFilter.
+ * An entry is loaded once per user and then refreshed in the background: the first request
+ * after a refresh interval still gets the cached entry and triggers the reload. Entries
+ * older than two intervals are never served, so a revoked or disabled account stops being
+ * accepted within two refresh intervals at most. Unknown users are cached as absent too,
+ * so tokens of a deleted account do not reach the database on every request.
+ */
+@Component
+public class UserSecurityStateCache {
+
+    private final LoadingCache<String, Optional<UserSecurityState>> states;
+
+    public UserSecurityStateCache(UserRepository userRepository,
+                                  @Value("${app.security.user-state.refresh-interval:30s}") Duration refreshInterval,
+                                  @Value("${app.security.user-state.max-size:10000}") long maxSize) {
+        this.states = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(refreshInterval)
+                .expireAfterWrite(refreshInterval.multipliedBy(2))
+                .build(userRepository::findSecurityStateByUsername);
+    }
+
+    /**
+     * Returns true when the user still exists, is active and the token carries the current security version.
+     */
+    public boolean accepts(String username, long tokenSecurityVersion) {
+        return states.get(username).map(state -> state.accepts(tokenSecurityVersion)).orElse(false);
+    }
+
+    /**
+     * Non-blocking variant of {@link #accepts}: answers only from what is already cached and returns
+     * null when the user still has to be loaded.
+     */
+    public Boolean acceptsIfCached(String username, long tokenSecurityVersion) {
+        Optional<UserSecurityState> state = states.getIfPresent(username);
+        return state == null ? null : state.map(known -> known.accepts(tokenSecurityVersion)).orElse(false);
+    }
+
+    /**
+     * Drops the cached state so the next request sees the change immediately on this node.
+     */
+    public void invalidate(String username) {
+        states.invalidate(username);
+    }
+}
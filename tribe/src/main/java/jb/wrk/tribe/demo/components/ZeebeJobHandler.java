@@ -0,0 +1,47 @@
+package jb.wrk.tribe.demo.components;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a bean method as the handler of a Zeebe job type. ZeebeJobWorkerRegistry opens one worker per
+ * annotated method.
+ * <p>
+ * Handler parameters may be an {@link io.camunda.zeebe.client.api.response.ActivatedJob} and/or a record
+ * with the job's variables; the record components are fetched unless {@link #fetchVariables()} is set.
+ * The returned object (if any) becomes the completion variables. A handler may also return a
+ * {@link java.util.concurrent.CompletionStage}; the job is then completed (or failed) when it completes.
+ * <p>
+ * Every setting below is a code default only: {@code app.zeebe.workers.types.<type>.*} properties win over
+ * it, and unset values fall back to {@code app.zeebe.workers.defaults.*}. Durations use the Spring format
+ * ({@code 30s}, {@code PT30S}); empty strings and negative numbers mean "not set".
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ZeebeJobHandler {
+
+    String type();
+
+    String[] fetchVariables() default {};
+
+    // Upper bound of jobs activated but not completed by this worker, i.e. its concurrency
+    int maxJobsActive() default -1;
+
+    String timeout() default "";
+
+    String pollInterval() default "";
+
+    String requestTimeout() default "";
+
+    // Backoff between polls after a failed activation request
+    String backoffMinDelay() default "";
+
+    String backoffMaxDelay() default "";
+
+    // Delay before a job that failed in its handler is retried
+    String retryBackoff() default "";
+}
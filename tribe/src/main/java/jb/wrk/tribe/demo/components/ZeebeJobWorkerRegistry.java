@@ -0,0 +1,353 @@
+package jb.wrk.tribe.demo.components;
+
+import io.camunda.zeebe.client.ZeebeClient;
+import io.camunda.zeebe.client.api.command.CompleteJobCommandStep1;
+import io.camunda.zeebe.client.api.response.ActivatedJob;
+import io.camunda.zeebe.client.api.worker.BackoffSupplier;
+import io.camunda.zeebe.client.api.worker.JobClient;
+import io.camunda.zeebe.client.api.worker.JobHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jb.wrk.tribe.config.ZeebeWorkerProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Opens a Zeebe job worker for every bean method annotated with {@link ZeebeJobHandler}. Settings come
+ * from the annotation, overridden per environment by {@code app.zeebe.workers.types.<type>.*}, so
+ * capacity of a job type can be tuned without a code change.
+ * <p>
+ * With {@code spring.threads.virtual.enabled} every job of a blocking handler is handed off to a virtual
+ * thread of its own, so the client's few platform threads only poll and dispatch.
+ */
+@Component
+@Profile("!test")
+public class ZeebeJobWorkerRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ZeebeJobWorkerRegistry.class);
+
+    private final ZeebeClient zeebeClient;
+    private final ZeebeWorkerProperties workerProperties;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationContext applicationContext;
+    // One virtual thread per job of a blocking handler; null when virtual threads are disabled
+    private final ExecutorService virtualHandlerExecutor;
+
+    public ZeebeJobWorkerRegistry(ZeebeClient zeebeClient,
+                                  ZeebeWorkerProperties workerProperties,
+                                  MeterRegistry meterRegistry,
+                                  ApplicationContext applicationContext,
+                                  @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.zeebeClient = zeebeClient;
+        this.workerProperties = workerProperties;
+        this.meterRegistry = meterRegistry;
+        this.applicationContext = applicationContext;
+        this.virtualHandlerExecutor = virtualThreads ? Executors.newVirtualThreadPerTaskExecutor() : null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void openWorkers() {
+        List<String> jobTypes = new ArrayList<>();
+        for (String beanName : applicationContext.getBeanDefinitionNames()) {
+            Class<?> beanType = applicationContext.getType(beanName);
+            if (beanType == null) {
+                continue;
+            }
+            Map<Method, ZeebeJobHandler> handlers = MethodIntrospector.selectMethods(ClassUtils.getUserClass(beanType),
+                    (MethodIntrospector.MetadataLookup<ZeebeJobHandler>) method ->
+                            AnnotatedElementUtils.findMergedAnnotation(method, ZeebeJobHandler.class));
+            if (handlers.isEmpty()) {
+                continue;
+            }
+            Object bean = applicationContext.getBean(beanName);
+            handlers.forEach((method, annotation) -> {
+                openWorker(bean, AopUtils.selectInvocableMethod(method, bean.getClass()), annotation);
+                jobTypes.add(annotation.type());
+            });
+        }
+        log.info("Zeebe workers opened: {}", String.join(", ", jobTypes));
+    }
+
+    private void openWorker(Object bean, Method method, ZeebeJobHandler annotation) {
+        String jobType = annotation.type();
+        ZeebeWorkerProperties.JobType settings = workerProperties.forType(jobType, declaredSettings(annotation));
+        HandlerInvoker invoker = new HandlerInvoker(bean, method);
+        List<String> fetchVariables = annotation.fetchVariables().length > 0
+                ? List.of(annotation.fetchVariables())
+                : invoker.recordVariableNames();
+        boolean streamEnabled = settings.getStreamEnabled();
+
+        JobHandler jobHandler;
+        if (invoker.isAsync()) {
+            jobHandler = asyncHandler(job -> (CompletionStage<?>) invoker.invoke(job), settings);
+        } else if (virtualHandlerExecutor != null) {
+            jobHandler = asyncHandler(job -> CompletableFuture.supplyAsync(() -> invokeBlocking(invoker, job),
+                    virtualHandlerExecutor), settings);
+        } else {
+            jobHandler = syncHandler(invoker, settings);
+        }
+
+        var builder = zeebeClient.newWorker()
+                .jobType(jobType)
+                .handler(withActivationLatency(jobType, streamEnabled, settings.getTimeout(), jobHandler))
+                .name(jobType + "-worker")
+                .timeout(settings.getTimeout())
+                .maxJobsActive(settings.getMaxJobsActive())
+                .pollInterval(settings.getPollInterval())
+                .requestTimeout(settings.getRequestTimeout())
+                .backoffSupplier(BackoffSupplier.newBackoffBuilder()
+                        .minDelay(settings.getBackoffMinDelay().toMillis())
+                        .maxDelay(settings.getBackoffMaxDelay().toMillis())
+                        .build())
+                .streamEnabled(streamEnabled);
+        // An empty list would make the broker send every variable
+        if (!fetchVariables.isEmpty()) {
+            builder = builder.fetchVariables(fetchVariables);
+        }
+        builder.open();
+        log.info("[{}] worker settings: maxJobsActive={}, pollInterval={}, requestTimeout={}, timeout={}, streamEnabled={}, fetchVariables={}",
+                jobType, settings.getMaxJobsActive(), settings.getPollInterval(),
+                settings.getRequestTimeout(), settings.getTimeout(), streamEnabled, fetchVariables);
+    }
+
+    private JobHandler syncHandler(HandlerInvoker invoker, ZeebeWorkerProperties.JobType settings) {
+        return (client, job) -> {
+            Object result;
+            try {
+                result = invoker.invoke(job);
+            } catch (Exception e) {
+                fail(client, job, settings.getRetryBackoff(), e);
+                return;
+            }
+            complete(client, job, result);
+        };
+    }
+
+    private static Object invokeBlocking(HandlerInvoker invoker, ActivatedJob job) {
+        try {
+            return invoker.invoke(job);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Handler returning a {@link CompletionStage} (or a blocking handler handed off to a virtual thread):
+     * the job is completed when the stage completes, so the execution thread is free for the next job
+     * meanwhile. The client only counts jobs until the handler returns, so jobs in flight are capped at
+     * maxJobsActive here. A job arriving at the cap is handed back with its retries unchanged rather than
+     * parking one of the few execution threads every job type shares.
+     */
+    private JobHandler asyncHandler(StageInvoker invoker, ZeebeWorkerProperties.JobType settings) {
+        Semaphore inFlight = new Semaphore(settings.getMaxJobsActive());
+        return (client, job) -> {
+            if (!inFlight.tryAcquire()) {
+                handBack(client, job, settings.getBackoffMaxDelay());
+                return;
+            }
+            CompletionStage<?> stage;
+            try {
+                stage = invoker.start(job);
+            } catch (Exception e) {
+                inFlight.release();
+                fail(client, job, settings.getRetryBackoff(), e);
+                return;
+            }
+            stage.whenComplete((result, ex) -> {
+                inFlight.release();
+                if (ex != null) {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    fail(client, job, settings.getRetryBackoff(), cause);
+                } else {
+                    complete(client, job, result);
+                }
+            });
+        };
+    }
+
+    private static ZeebeWorkerProperties.JobType declaredSettings(ZeebeJobHandler annotation) {
+        ZeebeWorkerProperties.JobType declared = new ZeebeWorkerProperties.JobType();
+        if (annotation.maxJobsActive() > 0) {
+            declared.setMaxJobsActive(annotation.maxJobsActive());
+        }
+        declared.setTimeout(duration(annotation.timeout()));
+        declared.setPollInterval(duration(annotation.pollInterval()));
+        declared.setRequestTimeout(duration(annotation.requestTimeout()));
+        declared.setBackoffMinDelay(duration(annotation.backoffMinDelay()));
+        declared.setBackoffMaxDelay(duration(annotation.backoffMaxDelay()));
+        declared.setRetryBackoff(duration(annotation.retryBackoff()));
+        return declared;
+    }
+
+    private static Duration duration(String value) {
+        return value.isEmpty() ? null : DurationStyle.detectAndParse(value);
+    }
+
+    /**
+     * Records the time from activation to the handler starting, tagged by activation mode so streamed
+     * and polled workers can be compared. The broker sets the deadline to activation time plus the job
+     * timeout, so activation time is derived from it (and includes any clock skew to the broker).
+     */
+    private JobHandler withActivationLatency(String jobType, boolean streamEnabled, Duration jobTimeout, JobHandler handler) {
+        Timer activationLatency = Timer.builder("zeebe.job.activation.latency")
+                .description("Time from job activation by the broker until its handler starts")
+                .tag("type", jobType)
+                .tag("mode", streamEnabled ? "stream" : "poll")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        return (client, job) -> {
+            Instant activatedAt = Instant.ofEpochMilli(job.getDeadline()).minus(jobTimeout);
+            Duration latency = Duration.between(activatedAt, Instant.now());
+            if (!latency.isNegative()) {
+                activationLatency.record(latency);
+            }
+            handler.handle(client, job);
+        };
+    }
+
+    /**
+     * Sends the completion without waiting for the gateway, so the job execution thread can take the
+     * next job. A failed completion is only logged: the job times out and is activated again.
+     */
+    private void complete(JobClient client, ActivatedJob job, Object variables) {
+        CompleteJobCommandStep1 command = client.newCompleteCommand(job.getKey());
+        if (variables != null) {
+            command = command.variables(variables);
+        }
+        command.send()
+                .whenComplete((response, ex) -> {
+                    if (ex != null) {
+                        meterRegistry.counter("zeebe.job.completion.failures", "type", job.getType()).increment();
+                        log.warn("[{}] Failed to complete job key={}: {}", job.getType(), job.getKey(), ex.getMessage());
+                    }
+                });
+    }
+
+    private void fail(JobClient client, ActivatedJob job, Duration retryBackoff, Throwable error) {
+        log.warn("[{}] Handler failed for job key={}: {}", job.getType(), job.getKey(), error.getMessage());
+        client.newFailCommand(job.getKey())
+                .retries(Math.max(job.getRetries() - 1, 0))
+                .retryBackoff(retryBackoff)
+                .errorMessage(String.valueOf(error.getMessage()))
+                .send()
+                .whenComplete((response, ex) -> {
+                    if (ex != null) {
+                        log.warn("[{}] Failed to fail job key={}: {}", job.getType(), job.getKey(), ex.getMessage());
+                    }
+                });
+    }
+
+    /**
+     * Returns a job the worker has no capacity for. The broker activates it again after {@code backoff},
+     * like a failed poll backs off, so a saturated type does not spin on its own jobs.
+     */
+    private void handBack(JobClient client, ActivatedJob job, Duration backoff) {
+        meterRegistry.counter("zeebe.job.handed.back", "type", job.getType()).increment();
+        client.newFailCommand(job.getKey())
+                .retries(job.getRetries())
+                .retryBackoff(backoff)
+                .errorMessage("Worker at maxJobsActive, job handed back")
+                .send()
+                .whenComplete((response, ex) -> {
+                    if (ex != null) {
+                        log.warn("[{}] Failed to hand back job key={}: {}", job.getType(), job.getKey(), ex.getMessage());
+                    }
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (virtualHandlerExecutor != null) {
+            virtualHandlerExecutor.shutdown();
+        }
+    }
+
+    @FunctionalInterface
+    private interface StageInvoker {
+        CompletionStage<?> start(ActivatedJob job) throws Exception;
+    }
+
+    /**
+     * Resolves handler arguments from the activated job: the job itself, a record with its variables or
+     * the raw variable map.
+     */
+    private static final class HandlerInvoker {
+
+        private final Object bean;
+        private final Method method;
+        private final Class<?>[] parameterTypes;
+
+        HandlerInvoker(Object bean, Method method) {
+            this.bean = bean;
+            this.method = method;
+            this.parameterTypes = method.getParameterTypes();
+            for (Class<?> type : parameterTypes) {
+                if (type != ActivatedJob.class && !type.isRecord() && !Map.class.isAssignableFrom(type)) {
+                    throw new IllegalStateException("Unsupported parameter " + type.getName() + " on job handler " + method);
+                }
+            }
+            ReflectionUtils.makeAccessible(method);
+        }
+
+        boolean isAsync() {
+            return CompletionStage.class.isAssignableFrom(method.getReturnType());
+        }
+
+        List<String> recordVariableNames() {
+            return Arrays.stream(parameterTypes)
+                    .filter(Class::isRecord)
+                    .flatMap(type -> Arrays.stream(type.getRecordComponents()))
+                    .map(RecordComponent::getName)
+                    .distinct()
+                    .toList();
+        }
+
+        Object invoke(ActivatedJob job) throws Exception {
+            Object[] args = new Object[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                Class<?> type = parameterTypes[i];
+                if (type == ActivatedJob.class) {
+                    args[i] = job;
+                } else if (type.isRecord()) {
+                    args[i] = job.getVariablesAsType(type);
+                } else {
+                    args[i] = job.getVariablesAsMap();
+                }
+            }
+            try {
+                return method.invoke(bean, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+    }
+}
@@ -1,94 +1,104 @@
 package jb.wrk.tribe.demo.components;
 
-import io.camunda.zeebe.client.ZeebeClient;
+import io.camunda.zeebe.client.api.response.ActivatedJob;
+import jb.wrk.tribe.demo.dto.AutoApprovalResult;
+import jb.wrk.tribe.demo.dto.AutoApprovalVariables;
+import jb.wrk.tribe.demo.dto.CreditCheckResult;
+import jb.wrk.tribe.demo.dto.CreditCheckVariables;
+import jb.wrk.tribe.demo.dto.DocumentValidationResult;
+import jb.wrk.tribe.demo.dto.DocumentValidationVariables;
+import jb.wrk.tribe.demo.dto.LoanContext;
+import jb.wrk.tribe.demo.dto.LoanEvent;
+import jb.wrk.tribe.demo.dto.LoanStatusUpdate;
+import jb.wrk.tribe.demo.dto.ManualReviewVariables;
+import jb.wrk.tribe.demo.entities.LoanStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.boot.context.event.ApplicationReadyEvent;
-import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Job handlers of the loan approval process. Workers are opened by ZeebeJobWorkerRegistry; the values in
+ * the annotations are code defaults that app.zeebe.workers.types.&lt;type&gt;.* properties override.
+ */
 @Component
 @org.springframework.context.annotation.Profile("!test")
 public class ZeebeWorkers {
 
     private static final Logger log = LoggerFactory.getLogger(ZeebeWorkers.class);
 
-    private final ZeebeClient zeebeClient;
     private final DocumentValidationService documentValidationService;
-    private final CreditCheckService creditCheckService;
+    private final CreditCheckBatcher creditCheckBatcher;
     private final AutoApprovalService autoApprovalService;
+    private final BlobStore blobStore;
+    private final LoanStatusProjector loanStatusProjector;
+    private final LoanEventHub loanEventHub;
 
-    public ZeebeWorkers(ZeebeClient zeebeClient,
-                        DocumentValidationService documentValidationService,
-                        CreditCheckService creditCheckService,
-                        AutoApprovalService autoApprovalService) {
-        this.zeebeClient = zeebeClient;
+    public ZeebeWorkers(DocumentValidationService documentValidationService,
+                        CreditCheckBatcher creditCheckBatcher,
+                        AutoApprovalService autoApprovalService,
+                        BlobStore blobStore,
+                        LoanStatusProjector loanStatusProjector,
+                        LoanEventHub loanEventHub) {
         this.documentValidationService = documentValidationService;
-        this.creditCheckService = creditCheckService;
+        this.creditCheckBatcher = creditCheckBatcher;
         this.autoApprovalService = autoApprovalService;
+        this.blobStore = blobStore;
+        this.loanStatusProjector = loanStatusProjector;
+        this.loanEventHub = loanEventHub;
     }
 
-    @EventListener(ApplicationReadyEvent.class)
-    public void openWorkers() {
-        // Validate Documents worker
-        zeebeClient.newWorker()
-                .jobType("validate-docs")
-                .handler((client, job) -> {
-                    Map<String, Object> vars = job.getVariablesAsMap();
-                    log.info("[validate-docs] Handling job key={}, vars={}", job.getKey(), vars);
-                    Map<String, Object> updates = documentValidationService.validateDocuments(vars);
-                    client.newCompleteCommand(job.getKey())
-                            .variables(updates)
-                            .send().join();
-                })
-                .name("validate-docs-worker")
-                .timeout(Duration.ofSeconds(30))
-                .open();
+    // Validate Documents worker: reads the checks computed when the documents were uploaded
+    @ZeebeJobHandler(type = "validate-docs", timeout = "30s")
+    public CompletableFuture<DocumentValidationResult> validateDocuments(ActivatedJob job, DocumentValidationVariables vars) {
+        log.info("[validate-docs] Handling job key={}, vars={}", job.getKey(), vars);
+        return documentValidationService.validateDocuments(vars);
+    }
 
-        // Check Credit worker (set default credit score if missing)
-        zeebeClient.newWorker()
-                .jobType("check-credit")
-                .handler((client, job) -> {
-                    Map<String, Object> vars = job.getVariablesAsMap();
-                    Map<String, Object> updates = creditCheckService.checkCredit(vars);
-                    client.newCompleteCommand(job.getKey())
-                            .variables(updates)
-                            .send().join();
-                })
-                .name("check-credit-worker")
-                .timeout(Duration.ofSeconds(30))
-                .open();
+    // Check Credit worker (set default credit score if missing); concurrent jobs share bulk bureau calls
+    @ZeebeJobHandler(type = "check-credit", timeout = "30s", maxJobsActive = 64, retryBackoff = "5s")
+    public CompletableFuture<CreditCheckResult> checkCredit(ActivatedJob job, CreditCheckVariables vars, LoanContext context) {
+        return creditCheckBatcher.submit(vars).thenApply(result -> {
+            publishOutcome(job, context, LoanStatus.UNDER_REVIEW, result.creditScore());
+            return result;
+        });
+    }
 
-        // Auto Approve worker
-        zeebeClient.newWorker()
-                .jobType("auto-approve")
-                .handler((client, job) -> {
-                    Map<String, Object> vars = job.getVariablesAsMap();
-                    Map<String, Object> updates = autoApprovalService.autoApprove(vars);
-                    client.newCompleteCommand(job.getKey())
-                            .variables(updates)
-                            .send().join();
-                })
-                .name("auto-approve-worker")
-                .timeout(Duration.ofSeconds(30))
-                .open();
+    // Auto Approve worker
+    @ZeebeJobHandler(type = "auto-approve", timeout = "30s")
+    public AutoApprovalResult autoApprove(ActivatedJob job, AutoApprovalVariables vars, LoanContext context) {
+        AutoApprovalResult result = autoApprovalService.autoApprove(vars);
+        publishOutcome(job, context, LoanStatus.valueOf(result.approvalStatus()), vars.creditScore());
+        return result;
+    }
 
-        // Manual Review worker (simulates a quick approval)
-        zeebeClient.newWorker()
-                .jobType("manual-review")
-                .handler((client, job) -> {
-                    Map<String, Object> vars = job.getVariablesAsMap();
-                    log.info("[manual-review] job={}, vars={}", job.getKey(), vars);
-                    client.newCompleteCommand(job.getKey())
-                            .send().join();
-                })
-                .name("manual-review-worker")
-                .timeout(Duration.ofSeconds(30))
-                .open();
+    // Manual Review worker (simulates a quick approval); the only handler that needs the application data
+    @ZeebeJobHandler(type = "manual-review", timeout = "30s")
+    public void manualReview(ActivatedJob job, ManualReviewVariables vars, LoanContext context) {
+        log.info("[manual-review] job={}, vars={}", job.getKey(), vars);
+        if (vars.applicationDataRef() != null) {
+            Map<?, ?> applicationData = blobStore.readJson(vars.applicationDataRef(), Map.class);
+            log.info("[manual-review] job={} application data fields: {}", job.getKey(), applicationData.keySet());
+        }
+        publishOutcome(job, context, LoanStatus.APPROVED, vars.creditScore());
+    }
 
-        log.info("Zeebe workers opened: validate-docs, check-credit, auto-approve, manual-review");
+    /**
+     * Reports a job outcome to stream subscribers and, for persisted applications, to the write-behind
+     * projection of loan_applications.
+     */
+    private void publishOutcome(ActivatedJob job, LoanContext context, LoanStatus status, Integer creditScore) {
+        Instant now = Instant.now();
+        loanEventHub.publish(new LoanEvent(job.getProcessInstanceKey(), context.loanApplicationId(),
+                context.submittedBy(), status, creditScore, now));
+        if (context.loanApplicationId() != null) {
+            loanStatusProjector.publish(new LoanStatusUpdate(context.loanApplicationId(), status, creditScore,
+                    LocalDateTime.ofInstant(now, ZoneId.systemDefault())));
+        }
     }
 }
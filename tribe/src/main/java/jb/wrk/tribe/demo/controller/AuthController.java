@@ -2,45 +2,95 @@ package jb.wrk.tribe.demo.controller;
 
 import jakarta.validation.Valid;
 import jb.wrk.tribe.demo.components.JwtUtils;
+import jb.wrk.tribe.demo.components.PasswordCheckExecutor;
+import jb.wrk.tribe.demo.components.RefreshTokenService;
 import jb.wrk.tribe.demo.dto.JwtResponse;
 import jb.wrk.tribe.demo.dto.LoginRequest;
+import jb.wrk.tribe.demo.dto.RefreshRequest;
+import jb.wrk.tribe.demo.entities.User;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/auth")
+@Profile("!reactive")
 @CrossOrigin(origins = {"http://localhost:4200", "http://localhost:80", "http://localhost"})
 public class AuthController {
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private PasswordCheckExecutor passwordCheckExecutor;
 
     @Autowired
     private JwtUtils jwtUtils;
 
-    @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-        try {
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            loginRequest.getUsername(),
-                            loginRequest.getPassword()
-                    )
-            );
+    @Autowired
+    private RefreshTokenService refreshTokenService;
 
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String jwt = jwtUtils.generateToken(userDetails);
+    // Executor Spring MVC uses for async request processing
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor requestExecutor;
+
+    @Value("${app.auth.login.retry-after-seconds:1}")
+    private int retryAfterSeconds;
 
-            return ResponseEntity.ok(new JwtResponse(jwt, userDetails.getUsername()));
+    /**
+     * The password check runs on its own bounded pool; the request thread is released while it waits.
+     * Issuing the tokens (a database write) continues on the request executor, so it does not hold a
+     * password-check slot.
+     */
+    @PostMapping("/login")
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        return passwordCheckExecutor.authenticate(
+                        new UsernamePasswordAuthenticationToken(
+                                loginRequest.getUsername(),
+                                loginRequest.getPassword()
+                        ))
+                .<ResponseEntity<?>>thenApplyAsync(authentication -> {
+                    User user = (User) authentication.getPrincipal();
+                    return ResponseEntity.ok(issueTokens(user, refreshTokenService.issue(user)));
+                }, requestExecutor)
+                .exceptionally(ex -> {
+                    Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+                    if (cause instanceof BadCredentialsException) {
+                        return ResponseEntity.badRequest().body("Invalid credentials");
+                    }
+                    if (cause instanceof RejectedExecutionException) {
+                        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                                .body("Too many login attempts, retry later");
+                    }
+                    throw ex instanceof CompletionException completionException
+                            ? completionException
+                            : new CompletionException(ex);
+                });
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshRequest refreshRequest) {
+        try {
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshRequest.getRefreshToken());
+            return ResponseEntity.ok(issueTokens(rotation.user(), rotation.refreshToken()));
         } catch (BadCredentialsException e) {
-            return ResponseEntity.badRequest().body("Invalid credentials");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid refresh token");
         }
     }
-}
 
+    private JwtResponse issueTokens(User user, String refreshToken) {
+        String jwt = jwtUtils.generateToken(user);
+        return new JwtResponse(jwt, user.getUsername(), refreshToken, jwtUtils.getExpirationMs() / 1000);
+    }
+}
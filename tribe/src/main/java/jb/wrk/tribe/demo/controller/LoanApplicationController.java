@@ -1,45 +1,345 @@
 package jb.wrk.tribe.demo.controller;
 
-import io.camunda.zeebe.client.ZeebeClient;
-import io.camunda.zeebe.client.api.response.ProcessInstanceEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.ElementKind;
+import jakarta.validation.Path;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jb.wrk.tribe.demo.components.IdempotencyService;
+import jb.wrk.tribe.demo.components.LoanAccessPolicy;
+import jb.wrk.tribe.demo.components.LoanEventStreams;
+import jb.wrk.tribe.demo.components.LoanIntakeService;
+import jb.wrk.tribe.demo.components.LoanProcessService;
+import jb.wrk.tribe.demo.components.LoanStartService;
+import jb.wrk.tribe.demo.dto.BatchStartResult;
+import jb.wrk.tribe.demo.dto.LoanApplicationRequest;
+import jb.wrk.tribe.demo.dto.LoanEvent;
+import jb.wrk.tribe.demo.dto.LoanIntakeResult;
+import jb.wrk.tribe.demo.dto.LoanQuery;
+import jb.wrk.tribe.demo.dto.LoanSummary;
+import jb.wrk.tribe.demo.dto.LoanStartRequest;
+import jb.wrk.tribe.demo.entities.LoanStatus;
+import jb.wrk.tribe.demo.repository.LoanApplicationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.net.URI;
+import java.security.Principal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/loans")
 @Validated
+@Profile("!reactive")
 @CrossOrigin(origins = {"http://localhost:4200", "http://localhost:80", "http://localhost"})
 public class LoanApplicationController {
 
-    private final ZeebeClient zeebeClient;
+    private static final int PAGE_MAX_LIMIT = 200;
+    private static final String NULL_ITEM = "Item is null";
 
-    public LoanApplicationController(ZeebeClient zeebeClient) {
-        this.zeebeClient = zeebeClient;
+    private final LoanProcessService loanProcessService;
+    private final LoanStartService loanStartService;
+    private final LoanIntakeService loanIntakeService;
+    private final LoanApplicationRepository loanApplicationRepository;
+    private final LoanEventStreams loanEventStreams;
+    private final LoanAccessPolicy loanAccessPolicy;
+    private final ObjectReader loanStartReader;
+    private final int batchMaxItems;
+
+    public LoanApplicationController(LoanProcessService loanProcessService,
+                                     LoanStartService loanStartService,
+                                     LoanIntakeService loanIntakeService,
+                                     LoanApplicationRepository loanApplicationRepository,
+                                     LoanEventStreams loanEventStreams,
+                                     LoanAccessPolicy loanAccessPolicy,
+                                     ObjectMapper objectMapper,
+                                     @Value("${app.loans.batch.max-items:10000}") int batchMaxItems) {
+        this.loanProcessService = loanProcessService;
+        this.loanStartService = loanStartService;
+        this.loanIntakeService = loanIntakeService;
+        this.loanApplicationRepository = loanApplicationRepository;
+        this.loanEventStreams = loanEventStreams;
+        this.loanAccessPolicy = loanAccessPolicy;
+        this.loanStartReader = objectMapper.readerFor(LoanStartRequest.class);
+        this.batchMaxItems = batchMaxItems;
     }
 
-    @PostMapping("/start")
-    public ResponseEntity<Map<String, Object>> startLoanProcess(@RequestParam(name = "creditScore", required = false) Integer creditScore) {
-        Map<String, Object> vars = new HashMap<>();
-        if (creditScore != null) {
-            vars.put("creditScore", creditScore);
-        }
-        ProcessInstanceEvent event = zeebeClient
-                .newCreateInstanceCommand()
-                .bpmnProcessId("loanApprovalProcess")
-                .latestVersion()
-                .variables(vars)
-                .send()
-                .join();
+    /**
+     * Lists loans newest first, filtered by status, applicant email and a createdAt range
+     * ([createdFrom, createdTo)). Keyset pagination: pass the returned nextCursor to get the next page;
+     * every page costs the same however deep it is. Loan officers and admins see every application,
+     * other users only those they submitted.
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> listLoans(@RequestParam(name = "status", required = false) LoanStatus status,
+                                                         @RequestParam(name = "applicant", required = false) String applicant,
+                                                         @RequestParam(name = "createdFrom", required = false)
+                                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+                                                         @RequestParam(name = "createdTo", required = false)
+                                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+                                                         @RequestParam(name = "cursor", required = false) String cursor,
+                                                         @RequestParam(name = "limit", defaultValue = "50") int limit,
+                                                         Authentication authentication) {
+        if (limit < 1 || limit > PAGE_MAX_LIMIT) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit must be between 1 and " + PAGE_MAX_LIMIT));
+        }
+        LoanQuery.Cursor after;
+        try {
+            after = cursor != null ? LoanQuery.Cursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        // One extra row tells whether there is a next page without a count query
+        String submittedBy = loanAccessPolicy.isStaff(authentication) ? null : authentication.getName();
+        List<LoanSummary> rows = loanApplicationRepository.findPage(new LoanQuery(submittedBy, status,
+                applicant != null && !applicant.isBlank() ? applicant.trim() : null,
+                createdFrom, createdTo, after, limit + 1));
+        boolean hasMore = rows.size() > limit;
+        List<LoanSummary> page = hasMore ? rows.subList(0, limit) : rows;
         Map<String, Object> resp = new HashMap<>();
-        resp.put("processInstanceKey", event.getProcessInstanceKey());
-        resp.put("bpmnProcessId", "loanApprovalProcess");
-        resp.put("version", event.getVersion());
-        resp.put("variables", vars);
+        resp.put("items", page);
+        resp.put("nextCursor", hasMore ? LoanQuery.Cursor.of(page.get(page.size() - 1)).encode() : null);
+        return ResponseEntity.ok(resp);
+    }
+
+    /**
+     * Server-sent events of one process instance: the latest known outcome first, then every new one.
+     * The stream ends after the final decision. Only the user who started the process, loan officers and
+     * admins get its events; others are answered with 403 once the process is known to belong to someone
+     * else.
+     */
+    @GetMapping(value = "/{processInstanceKey}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<LoanEvent>>> processEvents(@PathVariable long processInstanceKey,
+                                                                          Authentication authentication) {
+        return loanEventStreams.processEvents(processInstanceKey, authentication)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+    }
+
+    /**
+     * Server-sent events of every process the current user starts or has started.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<LoanEvent>> officerEvents(Principal principal) {
+        return loanEventStreams.officerEvents(principal.getName());
+    }
+
+    /**
+     * Intake: persists the applications (in JDBC batches) and starts a process for each, passing the
+     * loanApplicationId to the process. Invalid or null items reject the whole request with 400, listing
+     * the problems by item index.
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> submitApplications(@RequestBody List<@NotNull @Valid LoanApplicationRequest> applications,
+                                                                  Principal principal) {
+        if (applications.size() > batchMaxItems) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Batch exceeds " + batchMaxItems + " items"));
+        }
+        List<LoanIntakeResult> results = loanIntakeService.intake(applications, principal.getName());
+        long started = results.stream().filter(result -> result.processInstanceKey() != null).count();
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("bpmnProcessId", LoanProcessService.PROCESS_ID);
+        resp.put("submitted", results.size());
+        resp.put("started", started);
+        resp.put("results", results);
         return ResponseEntity.ok(resp);
     }
-}
 
+    /**
+     * With an Idempotency-Key header, retries of the same request return the original process instance
+     * (header Idempotent-Replayed: true) instead of starting a duplicate; the key used with a different
+     * request is answered with 422, and with 409 while another node is still starting it. An optional JSON body may carry
+     * applicationData, which the process receives by reference only. {@code variant=parallel} starts the
+     * process version that validates documents and checks credit concurrently.
+     */
+    @PostMapping("/start")
+    public ResponseEntity<Map<String, Object>> startLoanProcess(@RequestParam(name = "creditScore", required = false) Integer creditScore,
+                                                                @RequestParam(name = "variant", defaultValue = "sequential") String variant,
+                                                                @RequestHeader(name = LoanStartService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                                                @RequestBody(required = false) LoanStartRequest application,
+                                                                Principal principal) {
+        LoanProcessService.Variant processVariant;
+        try {
+            loanStartService.checkIdempotencyKey(idempotencyKey);
+            processVariant = LoanProcessService.Variant.from(variant);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        Map<String, Object> vars = loanStartService.variables(application, creditScore, principal.getName());
+        IdempotencyService.Outcome outcome = loanStartService.start(processVariant, vars, idempotencyKey, principal.getName());
+        return withReplayHeader(ResponseEntity.ok(), outcome, idempotencyKey)
+                .body(LoanStartService.response(outcome.process(), vars));
+    }
+
+    /**
+     * Same as {@link #startLoanProcess} but answers with the decision when the process reaches it within
+     * {@code await} (e.g. PT5S): approvalStatus and creditScore are added to the response. Otherwise the
+     * response is 202 with the process instance key and the event stream to follow as Location. Decision
+     * events are only pushed within this JVM; see {@link LoanStartService#awaitDecision} for the fallback
+     * when the worker runs on another node.
+     */
+    @PostMapping(value = "/start", params = "await")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> startLoanProcessAndAwait(
+            @RequestParam(name = "creditScore", required = false) Integer creditScore,
+            @RequestParam(name = "await") String await,
+            @RequestParam(name = "variant", defaultValue = "sequential") String variant,
+            @RequestHeader(name = LoanStartService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody(required = false) LoanStartRequest application,
+            Principal principal) {
+        Duration timeout;
+        LoanProcessService.Variant processVariant;
+        try {
+            timeout = loanStartService.await(await);
+            loanStartService.checkIdempotencyKey(idempotencyKey);
+            processVariant = LoanProcessService.Variant.from(variant);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
+        }
+        Map<String, Object> vars = loanStartService.variables(application, creditScore, principal.getName());
+        IdempotencyService.Outcome outcome = loanStartService.start(processVariant, vars, idempotencyKey, principal.getName());
+        long processInstanceKey = outcome.process().processInstanceKey();
+        return loanStartService.awaitDecision(processInstanceKey, timeout)
+                .handle((decision, ex) -> {
+                    Map<String, Object> resp = LoanStartService.response(outcome.process(), vars);
+                    resp.put("decided", decision != null);
+                    if (decision == null) {
+                        return withReplayHeader(ResponseEntity.accepted(), outcome, idempotencyKey)
+                                .location(URI.create("/api/loans/" + processInstanceKey + "/events"))
+                                .body(resp);
+                    }
+                    resp.put("approvalStatus", decision.status());
+                    resp.put("creditScore", decision.creditScore());
+                    return withReplayHeader(ResponseEntity.ok(), outcome, idempotencyKey).body(resp);
+                });
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Map<String, Object>> handleConstraintViolation(ConstraintViolationException e) {
+        List<Map<String, Object>> errors = e.getConstraintViolations().stream()
+                .map(LoanApplicationController::toItemError)
+                .sorted(Comparator.comparing(error -> (Integer) error.getOrDefault("index", -1)))
+                .toList();
+        return ResponseEntity.badRequest().body(Map.of("error", "Validation failed", "errors", errors));
+    }
+
+    // The path of a batch item's violation is method.parameter[index].field; a null item has no field
+    private static Map<String, Object> toItemError(ConstraintViolation<?> violation) {
+        Map<String, Object> error = new HashMap<>();
+        for (Path.Node node : violation.getPropertyPath()) {
+            if (node.getIndex() != null && !error.containsKey("index")) {
+                error.put("index", node.getIndex());
+            }
+            if (node.getKind() == ElementKind.PROPERTY) {
+                error.put("field", node.getName());
+            }
+        }
+        error.put("message", violation.getMessage());
+        return error;
+    }
+
+    @ExceptionHandler(IdempotencyService.KeyReusedException.class)
+    public ResponseEntity<Map<String, Object>> handleKeyReused(IdempotencyService.KeyReusedException e) {
+        return ResponseEntity.unprocessableEntity().body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(IdempotencyService.KeyInProgressException.class)
+    public ResponseEntity<Map<String, Object>> handleKeyInProgress(IdempotencyService.KeyInProgressException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+    }
+
+    private static ResponseEntity.BodyBuilder withReplayHeader(ResponseEntity.BodyBuilder response,
+                                                               IdempotencyService.Outcome outcome, String idempotencyKey) {
+        if (LoanStartService.hasIdempotencyKey(idempotencyKey)) {
+            response.header("Idempotent-Replayed", String.valueOf(outcome.replayed()));
+        }
+        return response;
+    }
+
+    /**
+     * Starts one process per application with a bounded number of create commands in flight.
+     * Results are reported per item, in request order; a null item fails on its own. The body size is
+     * capped by RequestSizeLimitFilter before it is parsed.
+     */
+    @PostMapping(value = "/start/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> startLoanProcessBatch(@RequestBody List<LoanStartRequest> applications,
+                                                                     Principal principal) {
+        if (applications.size() > batchMaxItems) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Batch exceeds " + batchMaxItems + " items"));
+        }
+        LoanProcessService.Batch batch = loanProcessService.newBatch();
+        for (LoanStartRequest application : applications) {
+            if (application == null) {
+                batch.reject(NULL_ITEM);
+            } else {
+                batch.submit(loanStartService.variables(application, null, principal.getName()));
+            }
+        }
+        return ResponseEntity.ok(batchResponse(batch.awaitResults()));
+    }
+
+    /**
+     * NDJSON variant: every line is submitted as soon as it is read, so broker round trips overlap
+     * with receiving the rest of the upload.
+     */
+    @PostMapping(value = "/start/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Map<String, Object>> startLoanProcessStream(InputStream body, Principal principal) throws IOException {
+        LoanProcessService.Batch batch = loanProcessService.newBatch();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (batch.size() >= batchMaxItems) {
+                    batch.reject("Batch exceeds " + batchMaxItems + " items");
+                    continue;
+                }
+                try {
+                    LoanStartRequest application = loanStartReader.readValue(line);
+                    if (application == null) {
+                        batch.reject(NULL_ITEM);
+                    } else {
+                        batch.submit(loanStartService.variables(application, null, principal.getName()));
+                    }
+                } catch (JsonProcessingException e) {
+                    batch.reject("Invalid JSON: " + e.getOriginalMessage());
+                }
+            }
+        }
+        return ResponseEntity.ok(batchResponse(batch.awaitResults()));
+    }
+
+    private static Map<String, Object> batchResponse(List<BatchStartResult> results) {
+        long started = results.stream().filter(BatchStartResult::isStarted).count();
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("bpmnProcessId", LoanProcessService.PROCESS_ID);
+        resp.put("started", started);
+        resp.put("failed", results.size() - started);
+        resp.put("results", results);
+        return resp;
+    }
+}
@@ -0,0 +1,136 @@
+package jb.wrk.tribe.demo.controller;
+
+import jb.wrk.tribe.demo.components.DocumentStorage;
+import jb.wrk.tribe.demo.components.DocumentValidationService;
+import jb.wrk.tribe.demo.components.LoanAccessPolicy;
+import jb.wrk.tribe.demo.dto.DocumentCheck;
+import jb.wrk.tribe.demo.entities.LoanApplication;
+import jb.wrk.tribe.demo.entities.LoanDocument;
+import jb.wrk.tribe.demo.repository.LoanApplicationRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Document intake for loan applications. Uploads are streamed to {@link DocumentStorage} and validated
+ * in the background; the response only confirms storage, the outcome is available from the GET
+ * endpoint and to the validate-docs job. Only the user who submitted the application, loan officers and
+ * admins may upload or list its documents.
+ */
+@RestController
+@RequestMapping("/api/loans/{loanApplicationId}/documents")
+@Profile("!reactive")
+@CrossOrigin(origins = {"http://localhost:4200", "http://localhost:80", "http://localhost"})
+public class LoanDocumentController {
+
+    private final DocumentStorage documentStorage;
+    private final DocumentValidationService documentValidationService;
+    private final LoanApplicationRepository loanApplicationRepository;
+    private final LoanAccessPolicy loanAccessPolicy;
+
+    public LoanDocumentController(DocumentStorage documentStorage,
+                                  DocumentValidationService documentValidationService,
+                                  LoanApplicationRepository loanApplicationRepository,
+                                  LoanAccessPolicy loanAccessPolicy) {
+        this.documentStorage = documentStorage;
+        this.documentValidationService = documentValidationService;
+        this.loanApplicationRepository = loanApplicationRepository;
+        this.loanAccessPolicy = loanAccessPolicy;
+    }
+
+    /**
+     * Multipart upload. The container spools the part to disk (file-size-threshold=0), it is then
+     * transferred to storage without passing through the heap in one piece.
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> uploadMultipart(@PathVariable long loanApplicationId,
+                                                               @RequestPart("file") MultipartFile file,
+                                                               Authentication authentication) throws IOException {
+        Optional<ResponseEntity<Map<String, Object>>> denied = checkAccess(loanApplicationId, authentication);
+        if (denied.isPresent()) {
+            return denied.get();
+        }
+        try (InputStream content = file.getInputStream()) {
+            return accept(loanApplicationId, file.getOriginalFilename(), file.getContentType(), content);
+        }
+    }
+
+    /**
+     * Raw upload: the request body is the document, e.g. {@code curl --data-binary @file.pdf
+     * -H 'Content-Type: application/pdf' .../documents?filename=file.pdf}. It is streamed straight into
+     * storage.
+     */
+    @PostMapping(consumes = {MediaType.APPLICATION_PDF_VALUE, MediaType.IMAGE_PNG_VALUE,
+            MediaType.IMAGE_JPEG_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<Map<String, Object>> uploadStream(@PathVariable long loanApplicationId,
+                                                            @RequestParam(name = "filename", required = false) String filename,
+                                                            @RequestHeader(name = "Content-Type") MediaType contentType,
+                                                            InputStream body,
+                                                            Authentication authentication) {
+        Optional<ResponseEntity<Map<String, Object>>> denied = checkAccess(loanApplicationId, authentication);
+        if (denied.isPresent()) {
+            return denied.get();
+        }
+        return accept(loanApplicationId, filename, contentType.getType() + "/" + contentType.getSubtype(), body);
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> listDocuments(@PathVariable long loanApplicationId,
+                                                             Authentication authentication) {
+        Optional<ResponseEntity<Map<String, Object>>> denied = checkAccess(loanApplicationId, authentication);
+        if (denied.isPresent()) {
+            return denied.get();
+        }
+        List<LoanDocument> documents = documentValidationService.documentsFor(loanApplicationId);
+        List<DocumentCheck> checked = documents.stream()
+                .filter(LoanDocument::isChecked)
+                .map(LoanDocument::toCheck)
+                .toList();
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("loanApplicationId", loanApplicationId);
+        resp.put("documents", checked);
+        resp.put("pending", documents.size() - checked.size());
+        return ResponseEntity.ok(resp);
+    }
+
+    // Unknown applications are 404 and foreign ones 403, before anything is read or stored
+    private Optional<ResponseEntity<Map<String, Object>>> checkAccess(long loanApplicationId, Authentication authentication) {
+        Optional<LoanApplication> application = loanApplicationRepository.findById(loanApplicationId);
+        if (application.isEmpty()) {
+            return Optional.of(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Loan application " + loanApplicationId + " not found")));
+        }
+        if (!loanAccessPolicy.canAccess(authentication, application.get().getSubmittedBy())) {
+            return Optional.of(ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Not allowed to access loan application " + loanApplicationId)));
+        }
+        return Optional.empty();
+    }
+
+    private ResponseEntity<Map<String, Object>> accept(long loanApplicationId, String filename, String contentType, InputStream content) {
+        DocumentStorage.StoredDocument document;
+        try {
+            document = documentStorage.store(loanApplicationId, filename, contentType, content);
+        } catch (DocumentStorage.DocumentTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", e.getMessage()));
+        }
+        documentValidationService.submit(document);
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("documentId", document.documentId());
+        resp.put("filename", document.filename());
+        resp.put("size", document.size());
+        resp.put("validation", "PENDING");
+        return ResponseEntity.accepted().body(resp);
+    }
+}
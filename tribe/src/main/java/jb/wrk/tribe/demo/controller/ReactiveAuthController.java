@@ -0,0 +1,79 @@
+package jb.wrk.tribe.demo.controller;
+
+import jakarta.validation.Valid;
+import jb.wrk.tribe.demo.components.JwtUtils;
+import jb.wrk.tribe.demo.components.PasswordCheckExecutor;
+import jb.wrk.tribe.demo.components.RefreshTokenService;
+import jb.wrk.tribe.demo.dto.JwtResponse;
+import jb.wrk.tribe.demo.dto.LoginRequest;
+import jb.wrk.tribe.demo.dto.RefreshRequest;
+import jb.wrk.tribe.demo.entities.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Auth endpoints for the "reactive" profile. Issuing and rotating refresh tokens are JPA writes (rotation
+ * locks the token row), so they run on the bounded elastic scheduler instead of the event loop.
+ */
+@RestController
+@RequestMapping("/api/auth")
+@Profile("reactive")
+@CrossOrigin(origins = {"http://localhost:4200", "http://localhost:80", "http://localhost"})
+public class ReactiveAuthController {
+
+    private final PasswordCheckExecutor passwordCheckExecutor;
+    private final JwtUtils jwtUtils;
+    private final RefreshTokenService refreshTokenService;
+    private final int retryAfterSeconds;
+
+    public ReactiveAuthController(PasswordCheckExecutor passwordCheckExecutor,
+                                  JwtUtils jwtUtils,
+                                  RefreshTokenService refreshTokenService,
+                                  @Value("${app.auth.login.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.passwordCheckExecutor = passwordCheckExecutor;
+        this.jwtUtils = jwtUtils;
+        this.refreshTokenService = refreshTokenService;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        return Mono.fromFuture(() -> passwordCheckExecutor.authenticate(
+                        new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword())))
+                .publishOn(Schedulers.boundedElastic())
+                .<ResponseEntity<?>>map(authentication -> {
+                    User user = (User) authentication.getPrincipal();
+                    return ResponseEntity.ok(issueTokens(user, refreshTokenService.issue(user)));
+                })
+                .onErrorResume(BadCredentialsException.class,
+                        e -> Mono.just(ResponseEntity.badRequest().body("Invalid credentials")))
+                .onErrorResume(RejectedExecutionException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                                .body("Too many login attempts, retry later")));
+    }
+
+    @PostMapping("/refresh")
+    public Mono<ResponseEntity<?>> refreshToken(@Valid @RequestBody RefreshRequest refreshRequest) {
+        return Mono.fromCallable(() -> refreshTokenService.rotate(refreshRequest.getRefreshToken()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .<ResponseEntity<?>>map(rotation -> ResponseEntity.ok(issueTokens(rotation.user(), rotation.refreshToken())))
+                .onErrorResume(BadCredentialsException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid refresh token")));
+    }
+
+    private JwtResponse issueTokens(User user, String refreshToken) {
+        String jwt = jwtUtils.generateToken(user);
+        return new JwtResponse(jwt, user.getUsername(), refreshToken, jwtUtils.getExpirationMs() / 1000);
+    }
+}
@@ -0,0 +1,147 @@
+package jb.wrk.tribe.demo.controller;
+
+import jb.wrk.tribe.demo.components.IdempotencyService;
+import jb.wrk.tribe.demo.components.LoanEventStreams;
+import jb.wrk.tribe.demo.components.LoanProcessService;
+import jb.wrk.tribe.demo.components.LoanStartService;
+import jb.wrk.tribe.demo.dto.LoanEvent;
+import jb.wrk.tribe.demo.dto.LoanStartRequest;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Loan endpoints for the "reactive" profile. An unkeyed process start is composed from the Zeebe
+ * client's future, so no thread waits for the broker and a few event-loop threads carry all in-flight
+ * starts; starts that block (Idempotency-Key claims, applicationData written to the blob store) run on
+ * the bounded elastic scheduler. /start takes the same options as the servlet controller and the event
+ * streams are the same; the JPA-backed intake, listing, batch and document endpoints are servlet-only
+ * and answer 501 here.
+ */
+@RestController
+@RequestMapping("/api/loans")
+@Validated
+@Profile("reactive")
+@CrossOrigin(origins = {"http://localhost:4200", "http://localhost:80", "http://localhost"})
+public class ReactiveLoanApplicationController {
+
+    private final LoanStartService loanStartService;
+    private final LoanEventStreams loanEventStreams;
+
+    public ReactiveLoanApplicationController(LoanStartService loanStartService,
+                                             LoanEventStreams loanEventStreams) {
+        this.loanStartService = loanStartService;
+        this.loanEventStreams = loanEventStreams;
+    }
+
+    /**
+     * Same options as the servlet /start: creditScore, variant, an optional JSON body with applicationData,
+     * Idempotency-Key replays and {@code await} for the decision (202 with the event stream when it is not
+     * reached in time; see {@link LoanStartService#awaitDecision} for decisions made on other nodes).
+     */
+    @PostMapping("/start")
+    public Mono<ResponseEntity<Map<String, Object>>> startLoanProcess(@RequestParam(name = "creditScore", required = false) Integer creditScore,
+                                                                      @RequestParam(name = "variant", defaultValue = "sequential") String variant,
+                                                                      @RequestParam(name = "await", required = false) String await,
+                                                                      @RequestHeader(name = LoanStartService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                                                      @RequestBody(required = false) LoanStartRequest application,
+                                                                      Principal principal) {
+        Duration timeout;
+        LoanProcessService.Variant processVariant;
+        try {
+            timeout = await != null ? loanStartService.await(await) : null;
+            loanStartService.checkIdempotencyKey(idempotencyKey);
+            processVariant = LoanProcessService.Variant.from(variant);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
+        }
+        boolean keyed = LoanStartService.hasIdempotencyKey(idempotencyKey);
+        Mono<Started> started = Mono.defer(() -> {
+            Map<String, Object> vars = loanStartService.variables(application, creditScore, principal.getName());
+            if (!keyed) {
+                return Mono.fromFuture(loanStartService.startAsync(processVariant, vars))
+                        .map(process -> new Started(new IdempotencyService.Outcome(process, false), vars));
+            }
+            return Mono.fromCallable(() -> new Started(
+                    loanStartService.start(processVariant, vars, idempotencyKey, principal.getName()), vars));
+        });
+        if (keyed || (application != null && application.hasApplicationData())) {
+            started = started.subscribeOn(Schedulers.boundedElastic());
+        }
+        return started.flatMap(start -> timeout == null
+                ? Mono.just(withReplayHeader(ResponseEntity.ok(), start.outcome(), idempotencyKey)
+                        .body(LoanStartService.response(start.outcome().process(), start.vars())))
+                : awaitDecision(start, timeout, idempotencyKey));
+    }
+
+    private Mono<ResponseEntity<Map<String, Object>>> awaitDecision(Started start, Duration timeout, String idempotencyKey) {
+        long processInstanceKey = start.outcome().process().processInstanceKey();
+        return Mono.fromFuture(loanStartService.awaitDecision(processInstanceKey, timeout))
+                .map(decision -> {
+                    Map<String, Object> resp = LoanStartService.response(start.outcome().process(), start.vars());
+                    resp.put("decided", true);
+                    resp.put("approvalStatus", decision.status());
+                    resp.put("creditScore", decision.creditScore());
+                    return withReplayHeader(ResponseEntity.ok(), start.outcome(), idempotencyKey).body(resp);
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    Map<String, Object> resp = LoanStartService.response(start.outcome().process(), start.vars());
+                    resp.put("decided", false);
+                    return withReplayHeader(ResponseEntity.accepted(), start.outcome(), idempotencyKey)
+                            .location(URI.create("/api/loans/" + processInstanceKey + "/events"))
+                            .body(resp);
+                }));
+    }
+
+    @GetMapping(value = "/{processInstanceKey}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<LoanEvent>>> processEvents(@PathVariable long processInstanceKey,
+                                                                          Authentication authentication) {
+        return loanEventStreams.processEvents(processInstanceKey, authentication)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<LoanEvent>> officerEvents(Principal principal) {
+        return loanEventStreams.officerEvents(principal.getName());
+    }
+
+    @RequestMapping(path = {"", "/start/batch", "/{loanApplicationId}/documents"})
+    public ResponseEntity<Map<String, Object>> servletOnly() {
+        return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED)
+                .body(Map.of("error", "Not available with the reactive profile"));
+    }
+
+    @ExceptionHandler(IdempotencyService.KeyReusedException.class)
+    public ResponseEntity<Map<String, Object>> handleKeyReused(IdempotencyService.KeyReusedException e) {
+        return ResponseEntity.unprocessableEntity().body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(IdempotencyService.KeyInProgressException.class)
+    public ResponseEntity<Map<String, Object>> handleKeyInProgress(IdempotencyService.KeyInProgressException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+    }
+
+    private static ResponseEntity.BodyBuilder withReplayHeader(ResponseEntity.BodyBuilder response,
+                                                               IdempotencyService.Outcome outcome, String idempotencyKey) {
+        if (LoanStartService.hasIdempotencyKey(idempotencyKey)) {
+            response.header("Idempotent-Replayed", String.valueOf(outcome.replayed()));
+        }
+        return response;
+    }
+
+    private record Started(IdempotencyService.Outcome outcome, Map<String, Object> vars) {}
+}
@@ -0,0 +1,6 @@
+package jb.wrk.tribe.demo.dto;
+
+/**
+ * Variables the auto-approve job writes back to the process.
+ */
+public record AutoApprovalResult(String approvalStatus) {}
@@ -0,0 +1,9 @@
+package jb.wrk.tribe.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Variables the auto-approve and manual-review jobs read.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record AutoApprovalVariables(Long loanApplicationId, Integer creditScore) {}
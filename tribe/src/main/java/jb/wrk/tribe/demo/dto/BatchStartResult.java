@@ -0,0 +1,19 @@
+package jb.wrk.tribe.demo.dto;
+
+/**
+ * Outcome of one item of a batch start: either the process instance key or the error that prevented it.
+ */
+public record BatchStartResult(int index, Long processInstanceKey, String error) {
+
+    public static BatchStartResult started(int index, long processInstanceKey) {
+        return new BatchStartResult(index, processInstanceKey, null);
+    }
+
+    public static BatchStartResult failed(int index, String error) {
+        return new BatchStartResult(index, null, error);
+    }
+
+    public boolean isStarted() {
+        return processInstanceKey != null;
+    }
+}
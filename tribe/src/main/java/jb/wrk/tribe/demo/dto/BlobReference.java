@@ -0,0 +1,7 @@
+package jb.wrk.tribe.demo.dto;
+
+/**
+ * Claim check for a payload kept in the blob store: travels as a process variable in place of the
+ * payload itself. The id is the SHA-256 of the content, so equal payloads share one blob.
+ */
+public record BlobReference(String id, long size, String mediaType) {}
@@ -0,0 +1,6 @@
+package jb.wrk.tribe.demo.dto;
+
+/**
+ * Variables the check-credit job writes back to the process.
+ */
+public record CreditCheckResult(int creditScore, boolean creditCheckComplete, String creditCheckTimestamp) {}
@@ -0,0 +1,10 @@
+package jb.wrk.tribe.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Variables the check-credit job reads. A creditScore supplied at start time is used as is;
+ * otherwise the score is looked up for the applicant identified by applicantEmail.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record CreditCheckVariables(Long loanApplicationId, Integer creditScore, String applicantEmail) {}
@@ -0,0 +1,14 @@
+package jb.wrk.tribe.demo.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of validating one uploaded document; valid when no stage reported a problem.
+ */
+public record DocumentCheck(String documentId, String filename, String contentType, long size,
+                            String sha256, List<String> problems) {
+
+    public boolean valid() {
+        return problems.isEmpty();
+    }
+}
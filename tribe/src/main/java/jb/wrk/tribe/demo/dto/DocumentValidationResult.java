@@ -0,0 +1,7 @@
+package jb.wrk.tribe.demo.dto;
+
+/**
+ * Variables the validate-docs job writes back to the process. The per-document checks stay in the blob
+ * store; documentReportRef points to them (null when no documents were uploaded).
+ */
+public record DocumentValidationResult(boolean documentsValid, String validationTimestamp, BlobReference documentReportRef) {}
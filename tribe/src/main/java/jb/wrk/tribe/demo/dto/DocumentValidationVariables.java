@@ -0,0 +1,9 @@
+package jb.wrk.tribe.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Variables the validate-docs job reads. Record components double as the job's fetchVariables.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record DocumentValidationVariables(Long loanApplicationId) {}
@@ -4,12 +4,20 @@ public class JwtResponse {
     private String token;
     private String type = "Bearer";
     private String username;
+    private String refreshToken;
+    private long expiresIn;
 
     public JwtResponse(String accessToken, String username) {
         this.token = accessToken;
         this.username = username;
     }
 
+    public JwtResponse(String accessToken, String username, String refreshToken, long expiresIn) {
+        this(accessToken, username);
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+    }
+
     // Getters and Setters
     public String getToken() {
         return token;
@@ -34,5 +42,21 @@ public class JwtResponse {
     public void setUsername(String username) {
         this.username = username;
     }
-}
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    // Access token lifetime in seconds
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+
+    public void setExpiresIn(long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
+}
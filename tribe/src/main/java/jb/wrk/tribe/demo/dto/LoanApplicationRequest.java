@@ -0,0 +1,91 @@
+package jb.wrk.tribe.demo.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jb.wrk.tribe.demo.entities.LoanApplication;
+
+import java.math.BigDecimal;
+
+/**
+ * One loan application submitted to the intake endpoint (POST /api/loans). The credit score is
+ * optional; without it the process looks the applicant up at the credit bureau.
+ */
+public class LoanApplicationRequest {
+    @NotBlank
+    private String applicantName;
+
+    @NotBlank
+    @Email
+    private String applicantEmail;
+
+    @NotNull
+    @Positive
+    private BigDecimal requestedAmount;
+
+    @NotNull
+    @PositiveOrZero
+    private BigDecimal annualIncome;
+
+    @Min(300)
+    @Max(850)
+    private Integer creditScore;
+
+    // Default constructor
+    public LoanApplicationRequest() {}
+
+    public LoanApplication toEntity() {
+        LoanApplication application = new LoanApplication();
+        application.setApplicantName(applicantName);
+        application.setApplicantEmail(applicantEmail);
+        application.setRequestedAmount(requestedAmount);
+        application.setAnnualIncome(annualIncome);
+        application.setCreditScore(creditScore);
+        return application;
+    }
+
+    // Getters and Setters
+    public String getApplicantName() {
+        return applicantName;
+    }
+
+    public void setApplicantName(String applicantName) {
+        this.applicantName = applicantName;
+    }
+
+    public String getApplicantEmail() {
+        return applicantEmail;
+    }
+
+    public void setApplicantEmail(String applicantEmail) {
+        this.applicantEmail = applicantEmail;
+    }
+
+    public BigDecimal getRequestedAmount() {
+        return requestedAmount;
+    }
+
+    public void setRequestedAmount(BigDecimal requestedAmount) {
+        this.requestedAmount = requestedAmount;
+    }
+
+    public BigDecimal getAnnualIncome() {
+        return annualIncome;
+    }
+
+    public void setAnnualIncome(BigDecimal annualIncome) {
+        this.annualIncome = annualIncome;
+    }
+
+    public Integer getCreditScore() {
+        return creditScore;
+    }
+
+    public void setCreditScore(Integer creditScore) {
+        this.creditScore = creditScore;
+    }
+}
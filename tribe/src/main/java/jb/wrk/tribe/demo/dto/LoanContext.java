@@ -0,0 +1,10 @@
+package jb.wrk.tribe.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Variables identifying the loan behind a job, read next to a handler's own variables to report its
+ * outcome. submittedBy is set at start time to the user who started the process.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record LoanContext(Long loanApplicationId, String submittedBy) {}
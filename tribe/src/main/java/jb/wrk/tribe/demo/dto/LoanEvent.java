@@ -0,0 +1,17 @@
+package jb.wrk.tribe.demo.dto;
+
+import jb.wrk.tribe.demo.entities.LoanStatus;
+
+import java.time.Instant;
+
+/**
+ * A worker outcome pushed to clients watching a loan. submittedBy is the user who started the process,
+ * which routes the event to that officer's feed.
+ */
+public record LoanEvent(long processInstanceKey, Long loanApplicationId, String submittedBy,
+                        LoanStatus status, Integer creditScore, Instant occurredAt) {
+
+    public boolean isTerminal() {
+        return status == LoanStatus.APPROVED || status == LoanStatus.REJECTED;
+    }
+}
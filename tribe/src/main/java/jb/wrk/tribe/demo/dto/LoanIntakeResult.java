@@ -0,0 +1,7 @@
+package jb.wrk.tribe.demo.dto;
+
+/**
+ * Outcome of one intake item: the persisted application and, when its process could be started, the
+ * process instance key.
+ */
+public record LoanIntakeResult(int index, long loanApplicationId, Long processInstanceKey, String error) {}
@@ -0,0 +1,40 @@
+package jb.wrk.tribe.demo.dto;
+
+import jb.wrk.tribe.demo.entities.LoanStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Filters and position of one page of the loan listing. Pages are ordered newest first; {@code after}
+ * is the last row of the previous page (keyset pagination), so no rows are skipped or counted. A
+ * non-null {@code submittedBy} limits the page to that user's applications.
+ */
+public record LoanQuery(String submittedBy, LoanStatus status, String applicantEmail, LocalDateTime createdFrom,
+                        LocalDateTime createdTo, Cursor after, int limit) {
+
+    /**
+     * Position after a row: its createdAt and id. Sent to clients as an opaque token.
+     */
+    public record Cursor(LocalDateTime createdAt, long id) {
+
+        public static Cursor of(LoanSummary row) {
+            return new Cursor(row.createdAt(), row.id());
+        }
+
+        public String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Cursor decode(String token) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+                return new Cursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package jb.wrk.tribe.demo.dto;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One loan application as submitted to the intake endpoints.
+ */
+public class LoanStartRequest {
+    private Integer creditScore;
+    // Free-form applicant data; kept in the blob store and passed to the process as applicationDataRef
+    private Map<String, Object> applicationData;
+
+    // Default constructor
+    public LoanStartRequest() {}
+
+    public LoanStartRequest(Integer creditScore) {
+        this.creditScore = creditScore;
+    }
+
+    /**
+     * Process variables the loan approval process is started with, without applicationData (which is
+     * handed over by reference).
+     */
+    public Map<String, Object> toVariables() {
+        Map<String, Object> vars = new HashMap<>();
+        if (creditScore != null) {
+            vars.put("creditScore", creditScore);
+        }
+        return vars;
+    }
+
+    public boolean hasApplicationData() {
+        return applicationData != null && !applicationData.isEmpty();
+    }
+
+    // Getters and Setters
+    public Integer getCreditScore() {
+        return creditScore;
+    }
+
+    public void setCreditScore(Integer creditScore) {
+        this.creditScore = creditScore;
+    }
+
+    public Map<String, Object> getApplicationData() {
+        return applicationData;
+    }
+
+    public void setApplicationData(Map<String, Object> applicationData) {
+        this.applicationData = applicationData;
+    }
+}
@@ -0,0 +1,21 @@
+package jb.wrk.tribe.demo.dto;
+
+import jb.wrk.tribe.demo.entities.LoanStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * A worker outcome to be projected onto a loan_applications row. Null fields leave the column as is.
+ */
+public record LoanStatusUpdate(long loanApplicationId, LoanStatus status, Integer creditScore, LocalDateTime occurredAt) {
+
+    /**
+     * Coalesces a later update into this one: the later status wins, fields it leaves unset are kept.
+     */
+    public LoanStatusUpdate merge(LoanStatusUpdate later) {
+        return new LoanStatusUpdate(loanApplicationId,
+                later.status() != null ? later.status() : status,
+                later.creditScore() != null ? later.creditScore() : creditScore,
+                later.occurredAt());
+    }
+}
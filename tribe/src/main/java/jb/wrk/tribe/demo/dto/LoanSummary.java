@@ -0,0 +1,13 @@
+package jb.wrk.tribe.demo.dto;
+
+import jb.wrk.tribe.demo.entities.LoanStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Row of the loan listing, selected directly as a projection rather than loaded as an entity.
+ */
+public record LoanSummary(Long id, String applicantName, String applicantEmail, BigDecimal requestedAmount,
+                          Integer creditScore, LoanStatus status, String processInstanceId,
+                          LocalDateTime createdAt, LocalDateTime statusChangedAt) {}
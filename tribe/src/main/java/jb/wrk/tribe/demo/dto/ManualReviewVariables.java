@@ -0,0 +1,11 @@
+package jb.wrk.tribe.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Variables the manual-review job reads. Only the claim checks are fetched; the reviewer resolves the
+ * payloads it needs from the blob store.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ManualReviewVariables(Long loanApplicationId, Integer creditScore,
+                                    BlobReference applicationDataRef, BlobReference documentReportRef) {}
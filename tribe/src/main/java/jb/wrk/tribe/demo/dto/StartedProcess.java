@@ -0,0 +1,13 @@
+package jb.wrk.tribe.demo.dto;
+
+import io.camunda.zeebe.client.api.response.ProcessInstanceEvent;
+
+/**
+ * The part of a process start that is replayed to a client retrying with the same idempotency key.
+ */
+public record StartedProcess(long processInstanceKey, String bpmnProcessId, int version) {
+
+    public static StartedProcess of(ProcessInstanceEvent event) {
+        return new StartedProcess(event.getProcessInstanceKey(), event.getBpmnProcessId(), event.getVersion());
+    }
+}
@@ -0,0 +1,15 @@
+package jb.wrk.tribe.demo.dto;
+
+/**
+ * The slice of a user that decides whether an already signed token may still be used.
+ */
+public record UserSecurityState(String username,
+                                long securityVersion,
+                                boolean enabled,
+                                boolean accountNonExpired,
+                                boolean accountNonLocked) {
+
+    public boolean accepts(long tokenSecurityVersion) {
+        return enabled && accountNonExpired && accountNonLocked && securityVersion == tokenSecurityVersion;
+    }
+}
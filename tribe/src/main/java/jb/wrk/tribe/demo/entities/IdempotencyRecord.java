@@ -0,0 +1,100 @@
+package jb.wrk.tribe.demo.entities;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Process start remembered under its idempotency key, so replays survive restarts and are shared
+ * between nodes when the JPA store is enabled. A record is created (claimed) before the start and
+ * completed with the process once it has started.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key", length = 320)
+    private String key;
+
+    // SHA-256 of the request the key was first used with
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "process_instance_key")
+    private Long processInstanceKey;
+
+    @Column(name = "bpmn_process_id")
+    private String bpmnProcessId;
+
+    private Integer version;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // Assigned ids look persisted to Spring Data; new records must be inserted (and fail on a taken key), not merged
+    @Transient
+    private boolean isNew = true;
+
+    // Default constructor
+    public IdempotencyRecord() {}
+
+    public IdempotencyRecord(String key, String requestHash, Instant expiresAt) {
+        this.key = key;
+        this.requestHash = requestHash;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isCompleted() {
+        return processInstanceKey != null;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    // Getters
+    public String getKey() {
+        return key;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public Long getProcessInstanceKey() {
+        return processInstanceKey;
+    }
+
+    public String getBpmnProcessId() {
+        return bpmnProcessId;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -7,36 +7,147 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+/**
+ * Indexes back the keyset-paginated listing (newest first, id as tie breaker): one per filter it
+ * supports, each ending in created_at, id so a page is an index range scan whatever the table size.
+ * process_instance_id is indexed for looking an application up by its process.
+ */
 @Entity
-@Table(name = "loan_applications")
+@Table(name = "loan_applications", indexes = {
+        @Index(name = "idx_loan_applications_created", columnList = "created_at, id"),
+        @Index(name = "idx_loan_applications_status_created", columnList = "status, created_at, id"),
+        @Index(name = "idx_loan_applications_email_created", columnList = "applicant_email, created_at, id"),
+        @Index(name = "idx_loan_applications_submitter_created", columnList = "submitted_by, created_at, id"),
+        @Index(name = "idx_loan_applications_process_instance", columnList = "process_instance_id")
+})
 public class LoanApplication {
+    // Pooled sequence: ids for 50 rows per round trip, and unlike IDENTITY it lets Hibernate batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_applications_seq")
+    @SequenceGenerator(name = "loan_applications_seq", sequenceName = "loan_applications_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String applicantName;
 
-    @Column(nullable = false)
+    @Column(name = "applicant_email", nullable = false)
     private String applicantEmail;
 
     @Column(nullable = false)
     private BigDecimal requestedAmount;
 
-    @Column(nullable = false)
+    // Unknown until the credit check when not supplied at intake
     private Integer creditScore;
 
     @Column(nullable = false)
     private BigDecimal annualIncome;
 
     @Enumerated(EnumType.STRING)
+    @Column(name = "status")
     private LoanStatus status = LoanStatus.SUBMITTED;
 
+    @Column(name = "process_instance_id")
     private String processInstanceId;
 
+    // User who submitted the application; only they and staff may list it or see its documents and events
+    @Column(name = "submitted_by")
+    private String submittedBy;
+
+    // When the process last reported an outcome (written behind, so it can precede updatedAt)
+    private LocalDateTime statusChangedAt;
+
     @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+
+    // Default constructor
+    public LoanApplication() {}
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public String getApplicantName() {
+        return applicantName;
+    }
+
+    public void setApplicantName(String applicantName) {
+        this.applicantName = applicantName;
+    }
+
+    public String getApplicantEmail() {
+        return applicantEmail;
+    }
+
+    public void setApplicantEmail(String applicantEmail) {
+        this.applicantEmail = applicantEmail;
+    }
+
+    public BigDecimal getRequestedAmount() {
+        return requestedAmount;
+    }
+
+    public void setRequestedAmount(BigDecimal requestedAmount) {
+        this.requestedAmount = requestedAmount;
+    }
+
+    public Integer getCreditScore() {
+        return creditScore;
+    }
+
+    public void setCreditScore(Integer creditScore) {
+        this.creditScore = creditScore;
+    }
+
+    public BigDecimal getAnnualIncome() {
+        return annualIncome;
+    }
+
+    public void setAnnualIncome(BigDecimal annualIncome) {
+        this.annualIncome = annualIncome;
+    }
+
+    public LoanStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(LoanStatus status) {
+        this.status = status;
+    }
+
+    public String getProcessInstanceId() {
+        return processInstanceId;
+    }
+
+    public void setProcessInstanceId(String processInstanceId) {
+        this.processInstanceId = processInstanceId;
+    }
+
+    public String getSubmittedBy() {
+        return submittedBy;
+    }
+
+    public void setSubmittedBy(String submittedBy) {
+        this.submittedBy = submittedBy;
+    }
+
+    public LocalDateTime getStatusChangedAt() {
+        return statusChangedAt;
+    }
+
+    public void setStatusChangedAt(LocalDateTime statusChangedAt) {
+        this.statusChangedAt = statusChangedAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
 }
@@ -0,0 +1,135 @@
+package jb.wrk.tribe.demo.entities;
+
+import jakarta.persistence.*;
+import jb.wrk.tribe.demo.dto.DocumentCheck;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Document uploaded for a loan application, with the outcome of its validation once checked. The row
+ * is written when the upload is stored, so the validate-docs job knows about every document whichever
+ * node received it and however long ago.
+ */
+@Entity
+@Table(name = "loan_documents", indexes = @Index(name = "idx_loan_documents_loan", columnList = "loan_application_id"))
+public class LoanDocument implements Persistable<String> {
+
+    private static final String PROBLEM_SEPARATOR = "\n";
+
+    @Id
+    @Column(name = "document_id", length = 36)
+    private String documentId;
+
+    @Column(name = "loan_application_id", nullable = false)
+    private long loanApplicationId;
+
+    @Column(name = "storage_path", nullable = false, length = 1024)
+    private String storagePath;
+
+    @Column(nullable = false)
+    private String filename;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(nullable = false)
+    private long size;
+
+    @Column(length = 64)
+    private String sha256;
+
+    // Newline separated; empty when the document passed every stage
+    @Column(length = 2000)
+    private String problems;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+
+    // Null while the validation is still running
+    @Column(name = "checked_at")
+    private Instant checkedAt;
+
+    // Assigned ids look persisted to Spring Data; new documents must be inserted, not merged
+    @Transient
+    private boolean isNew = true;
+
+    // Default constructor
+    public LoanDocument() {}
+
+    public LoanDocument(String documentId, long loanApplicationId, String storagePath,
+                        String filename, String contentType, long size) {
+        this.documentId = documentId;
+        this.loanApplicationId = loanApplicationId;
+        this.storagePath = storagePath;
+        this.filename = filename;
+        this.contentType = contentType;
+        this.size = size;
+    }
+
+    public boolean isChecked() {
+        return checkedAt != null;
+    }
+
+    public DocumentCheck toCheck() {
+        List<String> problemList = problems == null || problems.isEmpty()
+                ? List.of()
+                : Arrays.asList(problems.split(PROBLEM_SEPARATOR));
+        return new DocumentCheck(documentId, filename, contentType, size, sha256, problemList);
+    }
+
+    public static String joinProblems(List<String> problems) {
+        return String.join(PROBLEM_SEPARATOR, problems);
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return documentId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    // Getters
+    public String getDocumentId() {
+        return documentId;
+    }
+
+    public long getLoanApplicationId() {
+        return loanApplicationId;
+    }
+
+    public String getStoragePath() {
+        return storagePath;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getCheckedAt() {
+        return checkedAt;
+    }
+}
@@ -0,0 +1,84 @@
+package jb.wrk.tribe.demo.entities;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Server side record of an issued refresh token. Only the SHA-256 of the token is stored,
+ * so a lookup is a single indexed read and a leaked table does not leak usable tokens.
+ */
+@Entity
+@Table(name = "refresh_tokens")
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_hash", unique = true, nullable = false, length = 64)
+    private String tokenHash;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    // User security version at issue time; a bump invalidates the token like it does access tokens
+    @Column(name = "security_version", nullable = false)
+    private long securityVersion;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    private boolean revoked = false;
+
+    @Column(name = "created_at")
+    private Instant createdAt = Instant.now();
+
+    // Default constructor
+    public RefreshToken() {}
+
+    public RefreshToken(String tokenHash, User user, Instant expiresAt) {
+        this.tokenHash = tokenHash;
+        this.user = user;
+        this.securityVersion = user.getSecurityVersion();
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt.isBefore(now);
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public long getSecurityVersion() {
+        return securityVersion;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isRevoked() {
+        return revoked;
+    }
+
+    public void setRevoked(boolean revoked) {
+        this.revoked = revoked;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
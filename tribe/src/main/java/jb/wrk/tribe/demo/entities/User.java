@@ -1,6 +1,7 @@
 package jb.wrk.tribe.demo.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -34,6 +35,11 @@ public class User implements UserDetails {
     private boolean accountNonLocked = true;
     private boolean credentialsNonExpired = true;
 
+    // Bumped to invalidate every token issued before the change (password reset, role change, lock)
+    @Column(name = "security_version", nullable = false)
+    @ColumnDefault("0")
+    private long securityVersion = 0;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
 
@@ -133,6 +139,18 @@ public class User implements UserDetails {
         this.credentialsNonExpired = credentialsNonExpired;
     }
 
+    public long getSecurityVersion() {
+        return securityVersion;
+    }
+
+    public void setSecurityVersion(long securityVersion) {
+        this.securityVersion = securityVersion;
+    }
+
+    public void revokeTokens() {
+        this.securityVersion++;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
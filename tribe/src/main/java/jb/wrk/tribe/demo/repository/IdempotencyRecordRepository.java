@@ -0,0 +1,34 @@
+package jb.wrk.tribe.demo.repository;
+
+import jb.wrk.tribe.demo.entities.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Query("select r from IdempotencyRecord r where r.key = :key and r.expiresAt > :now")
+    Optional<IdempotencyRecord> findActive(String key, Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.processInstanceKey = :processInstanceKey, r.bpmnProcessId = :bpmnProcessId, "
+            + "r.version = :version where r.key = :key")
+    int complete(String key, long processInstanceKey, String bpmnProcessId, int version);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.key = :key and r.expiresAt <= :now")
+    int deleteExpired(String key, Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt <= :now")
+    int deleteExpired(Instant now);
+}
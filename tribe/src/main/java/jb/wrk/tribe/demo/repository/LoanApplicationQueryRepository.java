@@ -0,0 +1,17 @@
+package jb.wrk.tribe.demo.repository;
+
+import jb.wrk.tribe.demo.dto.LoanQuery;
+import jb.wrk.tribe.demo.dto.LoanSummary;
+
+import java.util.List;
+
+/**
+ * Custom query fragment of {@link LoanApplicationRepository}.
+ */
+public interface LoanApplicationQueryRepository {
+
+    /**
+     * One page of loans matching the query, newest first, with at most {@code query.limit()} rows.
+     */
+    List<LoanSummary> findPage(LoanQuery query);
+}
@@ -0,0 +1,63 @@
+package jb.wrk.tribe.demo.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jb.wrk.tribe.demo.dto.LoanQuery;
+import jb.wrk.tribe.demo.dto.LoanSummary;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the listing query with only the predicates that are set, so the database can pick the
+ * matching composite index; optional {@code (:p is null or ...)} predicates would hide it. The keyset
+ * condition continues right after the previous page instead of counting past skipped rows.
+ */
+class LoanApplicationQueryRepositoryImpl implements LoanApplicationQueryRepository {
+
+    private final EntityManager entityManager;
+
+    LoanApplicationQueryRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<LoanSummary> findPage(LoanQuery query) {
+        StringBuilder jpql = new StringBuilder("select new jb.wrk.tribe.demo.dto.LoanSummary(l.id, l.applicantName, " +
+                "l.applicantEmail, l.requestedAmount, l.creditScore, l.status, l.processInstanceId, l.createdAt, " +
+                "l.statusChangedAt) from LoanApplication l where 1 = 1");
+        Map<String, Object> parameters = new HashMap<>();
+        if (query.submittedBy() != null) {
+            jpql.append(" and l.submittedBy = :submittedBy");
+            parameters.put("submittedBy", query.submittedBy());
+        }
+        if (query.status() != null) {
+            jpql.append(" and l.status = :status");
+            parameters.put("status", query.status());
+        }
+        if (query.applicantEmail() != null) {
+            jpql.append(" and l.applicantEmail = :applicantEmail");
+            parameters.put("applicantEmail", query.applicantEmail());
+        }
+        if (query.createdFrom() != null) {
+            jpql.append(" and l.createdAt >= :createdFrom");
+            parameters.put("createdFrom", query.createdFrom());
+        }
+        if (query.createdTo() != null) {
+            jpql.append(" and l.createdAt < :createdTo");
+            parameters.put("createdTo", query.createdTo());
+        }
+        if (query.after() != null) {
+            jpql.append(" and (l.createdAt < :afterCreatedAt or (l.createdAt = :afterCreatedAt and l.id < :afterId))");
+            parameters.put("afterCreatedAt", query.after().createdAt());
+            parameters.put("afterId", query.after().id());
+        }
+        jpql.append(" order by l.createdAt desc, l.id desc");
+
+        TypedQuery<LoanSummary> typedQuery = entityManager.createQuery(jpql.toString(), LoanSummary.class)
+                .setMaxResults(query.limit());
+        parameters.forEach(typedQuery::setParameter);
+        return typedQuery.getResultList();
+    }
+}
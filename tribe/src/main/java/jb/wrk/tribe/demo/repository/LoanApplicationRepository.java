@@ -0,0 +1,36 @@
+package jb.wrk.tribe.demo.repository;
+
+import jb.wrk.tribe.demo.entities.LoanApplication;
+import jb.wrk.tribe.demo.entities.LoanStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Intake and the status projection write different columns of the same rows; each does so with its own
+ * targeted update, so neither can write back a stale copy of the other's columns.
+ */
+@Repository
+public interface LoanApplicationRepository extends JpaRepository<LoanApplication, Long>, LoanApplicationQueryRepository {
+
+    // A null status or credit score leaves the column as is
+    @Transactional
+    @Modifying
+    @Query("update LoanApplication a set a.status = coalesce(:status, a.status), "
+            + "a.creditScore = coalesce(:creditScore, a.creditScore), a.statusChangedAt = :statusChangedAt, "
+            + "a.updatedAt = local datetime where a.id = :id")
+    int projectStatus(long id, LoanStatus status, Integer creditScore, LocalDateTime statusChangedAt);
+
+    @Transactional
+    @Modifying
+    @Query("update LoanApplication a set a.processInstanceId = :processInstanceId, a.updatedAt = local datetime "
+            + "where a.id = :id")
+    int recordProcessInstance(long id, String processInstanceId);
+
+    Optional<LoanApplication> findByProcessInstanceId(String processInstanceId);
+}
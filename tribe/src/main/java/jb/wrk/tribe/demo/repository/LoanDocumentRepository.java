@@ -0,0 +1,23 @@
+package jb.wrk.tribe.demo.repository;
+
+import jb.wrk.tribe.demo.entities.LoanDocument;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface LoanDocumentRepository extends JpaRepository<LoanDocument, String> {
+
+    List<LoanDocument> findByLoanApplicationIdOrderByCreatedAt(long loanApplicationId);
+
+    @Transactional
+    @Modifying
+    @Query("update LoanDocument d set d.sha256 = :sha256, d.problems = :problems, d.checkedAt = :checkedAt "
+            + "where d.documentId = :documentId")
+    int recordCheck(String documentId, String sha256, String problems, Instant checkedAt);
+}
@@ -1,7 +1,9 @@
 package jb.wrk.tribe.demo.repository;
 
+import jb.wrk.tribe.demo.dto.UserSecurityState;
 import jb.wrk.tribe.demo.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,4 +14,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    @Query("select new jb.wrk.tribe.demo.dto.UserSecurityState(u.username, u.securityVersion, u.enabled, " +
+            "u.accountNonExpired, u.accountNonLocked) from User u where u.username = :username")
+    Optional<UserSecurityState> findSecurityStateByUsername(String username);
 }
\ No newline at end of file
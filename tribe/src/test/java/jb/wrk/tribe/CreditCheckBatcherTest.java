@@ -0,0 +1,90 @@
+package jb.wrk.tribe;
+
+import jb.wrk.tribe.demo.components.CreditBureauClient;
+import jb.wrk.tribe.demo.components.CreditCheckBatcher;
+import jb.wrk.tribe.demo.dto.CreditCheckResult;
+import jb.wrk.tribe.demo.dto.CreditCheckVariables;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {"app.credit-check.batch.window=200ms", "app.credit-check.batch.max-size=3"})
+@ActiveProfiles("test")
+class CreditCheckBatcherTest {
+
+    @Autowired
+    private CreditCheckBatcher creditCheckBatcher;
+
+    @MockitoBean
+    private CreditBureauClient creditBureauClient;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldLookUpConcurrentChecksInOneBulkCall() {
+        // Given
+        when(creditBureauClient.fetchScores(any())).thenAnswer(invocation -> CompletableFuture.completedFuture(
+                ((Collection<String>) invocation.getArgument(0)).stream()
+                        .collect(Collectors.toMap(applicant -> applicant, applicant -> 600 + applicant.length()))));
+
+        // When
+        List<CompletableFuture<CreditCheckResult>> results = List.of(
+                creditCheckBatcher.submit(new CreditCheckVariables(1L, null, "a@bank.test")),
+                creditCheckBatcher.submit(new CreditCheckVariables(2L, 710, null)),
+                creditCheckBatcher.submit(new CreditCheckVariables(3L, null, "bbb@bank.test")));
+
+        // Then
+        assertThat(results.stream().map(CompletableFuture::join).map(CreditCheckResult::creditScore))
+                .containsExactly(611, 710, 613);
+        verify(creditBureauClient, times(1)).fetchScores(any());
+        verify(creditBureauClient, never()).fetchScore(anyString());
+    }
+
+    @Test
+    void shouldFallBackToSingleLookupsWhenBulkCallFails() {
+        // Given
+        when(creditBureauClient.fetchScores(any())).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("timeout")));
+        when(creditBureauClient.fetchScore("good@bank.test")).thenReturn(CompletableFuture.completedFuture(690));
+        when(creditBureauClient.fetchScore("bad@bank.test")).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("unknown")));
+
+        // When
+        CompletableFuture<CreditCheckResult> good = creditCheckBatcher.submit(new CreditCheckVariables(5L, null, "good@bank.test"));
+        CompletableFuture<CreditCheckResult> bad = creditCheckBatcher.submit(new CreditCheckVariables(6L, null, "bad@bank.test"));
+        CompletableFuture<CreditCheckResult> scored = creditCheckBatcher.submit(new CreditCheckVariables(7L, 720, null));
+
+        // Then: only the check whose own lookup fails fails
+        assertThat(good.join().creditScore()).isEqualTo(690);
+        assertThat(scored.join().creditScore()).isEqualTo(720);
+        assertThat(bad).failsWithin(Duration.ofSeconds(1));
+        verify(creditBureauClient, times(1)).fetchScores(any());
+    }
+
+    @Test
+    void shouldDispatchPartialBatchAfterWindow() {
+        // Given
+        when(creditBureauClient.fetchScores(any())).thenReturn(CompletableFuture.completedFuture(Map.of()));
+
+        // When
+        CompletableFuture<CreditCheckResult> result = creditCheckBatcher.submit(new CreditCheckVariables(4L, 680, null));
+
+        // Then
+        assertThat(result.join().creditScore()).isEqualTo(680);
+        verify(creditBureauClient, never()).fetchScores(any());
+    }
+}
@@ -0,0 +1,119 @@
+package jb.wrk.tribe;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jb.wrk.tribe.demo.components.IdempotencyService;
+import jb.wrk.tribe.demo.dto.StartedProcess;
+import jb.wrk.tribe.demo.entities.IdempotencyRecord;
+import jb.wrk.tribe.demo.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotencyServiceTest {
+
+    private static final Map<String, Object> REQUEST = Map.of("variant", "SEQUENTIAL", "variables", Map.of("creditScore", 720));
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void shouldReplayOriginalStartForSameKey() {
+        // Given
+        AtomicInteger starts = new AtomicInteger();
+
+        // When
+        IdempotencyService.Outcome first = idempotencyService.execute("testuser", "key-1", REQUEST,
+                () -> new StartedProcess(1000L + starts.incrementAndGet(), "loanApprovalProcess", 1));
+        IdempotencyService.Outcome second = idempotencyService.execute("testuser", "key-1", REQUEST,
+                () -> new StartedProcess(1000L + starts.incrementAndGet(), "loanApprovalProcess", 1));
+
+        // Then
+        assertThat(starts.get()).isEqualTo(1);
+        assertThat(first.replayed()).isFalse();
+        assertThat(second.replayed()).isTrue();
+        assertThat(second.process()).isEqualTo(first.process());
+    }
+
+    @Test
+    void shouldScopeKeysPerUser() {
+        IdempotencyService.Outcome user = idempotencyService.execute("testuser", "key-2", REQUEST,
+                () -> new StartedProcess(1L, "loanApprovalProcess", 1));
+        IdempotencyService.Outcome admin = idempotencyService.execute("admin", "key-2", REQUEST,
+                () -> new StartedProcess(2L, "loanApprovalProcess", 1));
+
+        assertThat(user.process().processInstanceKey()).isEqualTo(1L);
+        assertThat(admin.process().processInstanceKey()).isEqualTo(2L);
+    }
+
+    @Test
+    void shouldAllowRetryAfterFailedStart() {
+        assertThatThrownBy(() -> idempotencyService.execute("testuser", "key-3", REQUEST, () -> {
+            throw new IllegalStateException("broker unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+
+        IdempotencyService.Outcome retry = idempotencyService.execute("testuser", "key-3", REQUEST,
+                () -> new StartedProcess(3L, "loanApprovalProcess", 1));
+
+        assertThat(retry.replayed()).isFalse();
+        assertThat(retry.process().processInstanceKey()).isEqualTo(3L);
+    }
+
+    @Test
+    void shouldRejectSameKeyForDifferentRequest() {
+        // Given
+        idempotencyService.execute("testuser", "key-4", REQUEST, () -> new StartedProcess(4L, "loanApprovalProcess", 1));
+
+        // When / Then
+        Map<String, Object> otherRequest = Map.of("variant", "SEQUENTIAL", "variables", Map.of("creditScore", 500));
+        assertThatThrownBy(() -> idempotencyService.execute("testuser", "key-4", otherRequest,
+                () -> new StartedProcess(5L, "loanApprovalProcess", 1)))
+                .isInstanceOf(IdempotencyService.KeyReusedException.class);
+    }
+
+    @Test
+    void shouldReplayAcrossNodesFromTableWithoutOverwritingIt() {
+        // Given: two nodes sharing the table, each with its own in-memory cache
+        IdempotencyService nodeA = jpaNode();
+        IdempotencyService nodeB = jpaNode();
+        nodeA.execute("testuser", "key-5", REQUEST, () -> new StartedProcess(6L, "loanApprovalProcess", 1));
+
+        // When
+        IdempotencyService.Outcome replay = nodeB.execute("testuser", "key-5", REQUEST,
+                () -> new StartedProcess(7L, "loanApprovalProcess", 1));
+
+        // Then
+        assertThat(replay.replayed()).isTrue();
+        assertThat(replay.process().processInstanceKey()).isEqualTo(6L);
+        assertThat(idempotencyRecordRepository.findById("testuser:key-5").orElseThrow().getProcessInstanceKey())
+                .isEqualTo(6L);
+        assertThatThrownBy(() -> idempotencyRecordRepository.saveAndFlush(
+                new IdempotencyRecord("testuser:key-5", "other", Instant.now().plusSeconds(60))))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> nodeB.execute("testuser", "key-5",
+                Map.of("variant", "PARALLEL", "variables", Map.of("creditScore", 720)),
+                () -> new StartedProcess(8L, "loanApprovalProcessParallel", 1)))
+                .isInstanceOf(IdempotencyService.KeyReusedException.class);
+    }
+
+    private IdempotencyService jpaNode() {
+        return new IdempotencyService(idempotencyRecordRepository, objectMapper, Duration.ofHours(1), 100, true);
+    }
+}
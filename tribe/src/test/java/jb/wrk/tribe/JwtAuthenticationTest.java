@@ -1,5 +1,6 @@
 package jb.wrk.tribe;
 
+import io.jsonwebtoken.Claims;
 import jakarta.transaction.Transactional;
 import jb.wrk.tribe.demo.components.JwtUtils;
 import jb.wrk.tribe.demo.entities.Role;
@@ -67,5 +68,18 @@ class JwtAuthenticationTest {
         // Then
         assertThat(username).isEqualTo("testuser");
     }
-}
 
+    @Test
+    void shouldReuseVerifiedClaimsForRepeatedToken() {
+        // Given
+        String token = jwtUtils.generateToken(testUser);
+
+        // When
+        Claims first = jwtUtils.parseClaims(token);
+        Claims second = jwtUtils.parseClaims(token);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(jwtUtils.validateToken(second, testUser)).isTrue();
+    }
+}
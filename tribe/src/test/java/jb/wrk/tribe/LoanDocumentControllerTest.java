@@ -0,0 +1,97 @@
+package jb.wrk.tribe;
+
+import jb.wrk.tribe.demo.components.DocumentValidationService;
+import jb.wrk.tribe.demo.dto.DocumentValidationResult;
+import jb.wrk.tribe.demo.dto.DocumentValidationVariables;
+import jb.wrk.tribe.demo.entities.LoanApplication;
+import jb.wrk.tribe.demo.entities.LoanDocument;
+import jb.wrk.tribe.demo.repository.LoanApplicationRepository;
+import jb.wrk.tribe.demo.repository.LoanDocumentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoanDocumentControllerTest {
+
+    private static final byte[] PDF = "%PDF-1.7 test".getBytes(StandardCharsets.US_ASCII);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+
+    @Autowired
+    private LoanDocumentRepository loanDocumentRepository;
+
+    @Autowired
+    private DocumentValidationService documentValidationService;
+
+    @Test
+    void shouldAnswer404ForUnknownLoanApplication() throws Exception {
+        mockMvc.perform(get("/api/loans/{id}/documents", Long.MAX_VALUE).with(user("owner")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldOnlyLetSubmitterAndStaffAccessDocuments() throws Exception {
+        // Given
+        long id = saveApplication("owner");
+
+        // When / Then
+        mockMvc.perform(post("/api/loans/{id}/documents", id).with(user("someone-else"))
+                        .contentType(MediaType.APPLICATION_PDF).content(PDF))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/loans/{id}/documents", id).with(user("owner"))
+                        .param("filename", "statement.pdf")
+                        .contentType(MediaType.APPLICATION_PDF).content(PDF))
+                .andExpect(status().isAccepted());
+        mockMvc.perform(get("/api/loans/{id}/documents", id).with(user("officer").roles("LOAN_OFFICER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.loanApplicationId").value(id));
+        assertThat(loanDocumentRepository.findByLoanApplicationIdOrderByCreatedAt(id)).hasSize(1);
+    }
+
+    @Test
+    void shouldFailClosedWhenValidationNeverCompleted() {
+        // Given: a document recorded by a node that went away before its check was saved
+        long id = saveApplication("owner");
+        loanDocumentRepository.save(new LoanDocument(UUID.randomUUID().toString(), id,
+                "/nonexistent/" + UUID.randomUUID(), "statement.pdf", "application/pdf", PDF.length));
+
+        // When
+        DocumentValidationResult result = documentValidationService
+                .validateDocuments(new DocumentValidationVariables(id)).join();
+
+        // Then
+        assertThat(result.documentsValid()).isFalse();
+    }
+
+    private long saveApplication(String submittedBy) {
+        LoanApplication application = new LoanApplication();
+        application.setApplicantName("Test Applicant");
+        application.setApplicantEmail("applicant@example.com");
+        application.setRequestedAmount(new BigDecimal("15000"));
+        application.setAnnualIncome(new BigDecimal("60000"));
+        application.setSubmittedBy(submittedBy);
+        return loanApplicationRepository.save(application).getId();
+    }
+}
@@ -0,0 +1,72 @@
+package jb.wrk.tribe;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jb.wrk.tribe.demo.components.LoanEventHub;
+import jb.wrk.tribe.demo.dto.LoanEvent;
+import jb.wrk.tribe.demo.entities.LoanStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoanEventStreamTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoanEventHub loanEventHub;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldOnlyStreamProcessEventsToTheirSubmitter() throws Exception {
+        // Given
+        long processInstanceKey = 2251799813685301L;
+        loanEventHub.publish(new LoanEvent(processInstanceKey, null, "owner", LoanStatus.APPROVED, 742, Instant.now()));
+
+        // When / Then
+        mockMvc.perform(get("/api/loans/{key}/events", processInstanceKey).with(user("intruder")))
+                .andExpect(status().isForbidden());
+        MvcResult result = mockMvc.perform(get("/api/loans/{key}/events", processInstanceKey).with(user("owner")))
+                .andExpect(status().isOk())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(content().string(containsString("event:APPROVED")));
+    }
+
+    @Test
+    void shouldRegisterSubscriberOnlyWhenStreamIsSubscribed() {
+        // Given
+        long processInstanceKey = 2251799813685302L;
+
+        // When
+        Flux<LoanEvent> events = loanEventHub.subscribeToProcess(processInstanceKey);
+
+        // Then
+        assertThat(meterRegistry.get("loans.events.process.streams").gauge().value()).isZero();
+        Disposable subscription = events.subscribe();
+        assertThat(meterRegistry.get("loans.events.process.streams").gauge().value()).isEqualTo(1);
+        subscription.dispose();
+        assertThat(meterRegistry.get("loans.events.process.streams").gauge().value()).isZero();
+    }
+}
@@ -0,0 +1,53 @@
+package jb.wrk.tribe;
+
+import jb.wrk.tribe.demo.components.LoanIntakeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoanIntakeValidationTest {
+
+    private static final String VALID_ITEM = """
+            {"applicantName":"Test Applicant","applicantEmail":"applicant@example.com",
+             "requestedAmount":15000,"annualIncome":60000}""";
+    private static final String INVALID_EMAIL_ITEM = """
+            {"applicantName":"Test Applicant","applicantEmail":"not-an-email",
+             "requestedAmount":15000,"annualIncome":60000}""";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private LoanIntakeService loanIntakeService;
+
+    @Test
+    void shouldAnswer400WithPerIndexErrorsForInvalidAndNullItems() throws Exception {
+        // Given
+        String body = "[" + VALID_ITEM + "," + INVALID_EMAIL_ITEM + ",null]";
+
+        // When / Then
+        mockMvc.perform(post("/api/loans").with(user("officer"))
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.length()").value(2))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].field").value("applicantEmail"))
+                .andExpect(jsonPath("$.errors[1].index").value(2))
+                .andExpect(jsonPath("$.errors[1].field").doesNotExist());
+        verifyNoInteractions(loanIntakeService);
+    }
+}
@@ -0,0 +1,170 @@
+package jb.wrk.tribe;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jb.wrk.tribe.demo.dto.LoanQuery;
+import jb.wrk.tribe.demo.dto.LoanSummary;
+import jb.wrk.tribe.demo.entities.LoanApplication;
+import jb.wrk.tribe.demo.entities.LoanStatus;
+import jb.wrk.tribe.demo.repository.LoanApplicationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoanListingTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 3, 2, 10, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldPageThroughAllRowsWithCursorBreakingCreatedAtTiesById() throws Exception {
+        // Given: three applications created at the same instant, two earlier ones
+        String applicant = uniqueApplicant();
+        long tiedA = save(applicant, LoanStatus.SUBMITTED, T0);
+        long tiedB = save(applicant, LoanStatus.APPROVED, T0);
+        long tiedC = save(applicant, LoanStatus.SUBMITTED, T0);
+        long older = save(applicant, LoanStatus.REJECTED, T0.minusHours(1));
+        long oldest = save(applicant, LoanStatus.APPROVED, T0.minusHours(2));
+
+        // When: pages of two, following nextCursor
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/loans").with(user("officer").roles("LOAN_OFFICER"))
+                    .param("applicant", applicant)
+                    .param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("items").forEach(item -> ids.add(item.get("id").asLong()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        // Then: newest first, ties by descending id, nothing skipped or repeated
+        assertThat(pages).isEqualTo(3);
+        assertThat(ids).containsExactly(tiedC, tiedB, tiedA, older, oldest);
+    }
+
+    @Test
+    void shouldResumeInsideCreatedAtTieFromCursor() {
+        // Given
+        String applicant = uniqueApplicant();
+        long tiedA = save(applicant, LoanStatus.SUBMITTED, T0);
+        long tiedB = save(applicant, LoanStatus.SUBMITTED, T0);
+        long older = save(applicant, LoanStatus.SUBMITTED, T0.minusMinutes(1));
+
+        // When: the cursor round-trips through its encoded form
+        LoanQuery.Cursor after = LoanQuery.Cursor.decode(new LoanQuery.Cursor(T0, tiedB).encode());
+        List<LoanSummary> page = loanApplicationRepository.findPage(new LoanQuery(null, null, applicant, null, null, after, 10));
+
+        // Then
+        assertThat(after).isEqualTo(new LoanQuery.Cursor(T0, tiedB));
+        assertThat(page).extracting(LoanSummary::id).containsExactly(tiedA, older);
+    }
+
+    @Test
+    void shouldCombineStatusApplicantAndCreatedAtRangeFilters() {
+        // Given
+        String applicant = uniqueApplicant();
+        long approvedInRange = save(applicant, LoanStatus.APPROVED, T0);
+        save(applicant, LoanStatus.SUBMITTED, T0);
+        save(applicant, LoanStatus.APPROVED, T0.plusHours(1));
+        save(applicant, LoanStatus.APPROVED, T0.minusHours(1));
+        save(uniqueApplicant(), LoanStatus.APPROVED, T0);
+
+        // When: createdFrom is inclusive, createdTo exclusive
+        List<LoanSummary> page = loanApplicationRepository.findPage(new LoanQuery(null, LoanStatus.APPROVED, applicant,
+                T0, T0.plusHours(1), null, 10));
+
+        // Then
+        assertThat(page).extracting(LoanSummary::id).containsExactly(approvedInRange);
+    }
+
+    @Test
+    void shouldListOnlyOwnApplicationsForNonStaffUsers() throws Exception {
+        // Given
+        String applicant = uniqueApplicant();
+        long own = save(applicant, LoanStatus.SUBMITTED, T0, "owner");
+        long foreign = save(applicant, LoanStatus.SUBMITTED, T0.minusMinutes(1), "someone-else");
+
+        // When / Then: the applicant filter cannot reach other users' applications
+        assertThat(listedIds(user("owner"), applicant)).containsExactly(own);
+        assertThat(listedIds(user("someone-else"), applicant)).containsExactly(foreign);
+        assertThat(listedIds(user("admin").roles("ADMIN"), applicant)).containsExactly(own, foreign);
+    }
+
+    @Test
+    void shouldRejectInvalidCursorAndLimit() throws Exception {
+        mockMvc.perform(get("/api/loans").with(user("officer").roles("LOAN_OFFICER")).param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/loans").with(user("officer").roles("LOAN_OFFICER")).param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<Long> listedIds(SecurityMockMvcRequestPostProcessors.UserRequestPostProcessor caller, String applicant) throws Exception {
+        JsonNode page = objectMapper.readTree(mockMvc.perform(get("/api/loans").with(caller).param("applicant", applicant))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        List<Long> ids = new ArrayList<>();
+        page.get("items").forEach(item -> ids.add(item.get("id").asLong()));
+        return ids;
+    }
+
+    private long save(String applicant, LoanStatus status, LocalDateTime createdAt) {
+        return save(applicant, status, createdAt, null);
+    }
+
+    private long save(String applicant, LoanStatus status, LocalDateTime createdAt, String submittedBy) {
+        LoanApplication application = new LoanApplication();
+        application.setSubmittedBy(submittedBy);
+        application.setApplicantName("Test Applicant");
+        application.setApplicantEmail(applicant);
+        application.setRequestedAmount(new BigDecimal("15000"));
+        application.setAnnualIncome(new BigDecimal("60000"));
+        application.setStatus(status);
+        long id = loanApplicationRepository.save(application).getId();
+        // created_at is set by Hibernate and not updatable through the entity
+        jdbcTemplate.update("update loan_applications set created_at = ? where id = ?", createdAt, id);
+        return id;
+    }
+
+    private static String uniqueApplicant() {
+        return "listing-" + UUID.randomUUID() + "@example.com";
+    }
+}
@@ -3,6 +3,7 @@ package jb.wrk.tribe;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.transaction.Transactional;
 import jb.wrk.tribe.demo.components.JwtUtils;
+import jb.wrk.tribe.demo.components.UserSecurityStateCache;
 import jb.wrk.tribe.demo.entities.Role;
 import jb.wrk.tribe.demo.entities.User;
 import jb.wrk.tribe.demo.repository.UserRepository;
@@ -40,6 +41,9 @@ class LoanProcessRestSecurityTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private UserSecurityStateCache userSecurityStateCache;
+
     private User testUser;
     private User adminUser;
     private String userJwtToken;
@@ -47,6 +51,10 @@ class LoanProcessRestSecurityTest {
 
     @BeforeEach
     void setUp() {
+        // Users are recreated per test (rolled back afterwards); drop state cached by earlier tests
+        userSecurityStateCache.invalidate("testuser");
+        userSecurityStateCache.invalidate("admin");
+
         testUser = new User();
         testUser.setUsername("testuser");
         testUser.setEmail("test@example.com");
@@ -184,6 +192,19 @@ class LoanProcessRestSecurityTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void shouldRejectTokenIssuedBeforeSecurityVersionChange() throws Exception {
+        testUser.revokeTokens();
+        userRepository.save(testUser);
+        userSecurityStateCache.invalidate(testUser.getUsername());
+
+        mockMvc.perform(post("/api/loans/start")
+                        .header("Authorization", "Bearer " + userJwtToken)
+                        .param("creditScore", "750")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnauthorized());
+    }
+
     private String createExpiredToken(User user) {
         return jwtUtils.generateToken(user);
     }
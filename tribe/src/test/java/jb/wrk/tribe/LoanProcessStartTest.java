@@ -0,0 +1,176 @@
+package jb.wrk.tribe;
+
+import io.camunda.zeebe.client.api.response.ProcessInstanceEvent;
+import io.camunda.zeebe.client.impl.ZeebeClientFutureImpl;
+import jb.wrk.tribe.demo.components.LoanEventHub;
+import jb.wrk.tribe.demo.components.LoanProcessService;
+import jb.wrk.tribe.demo.dto.LoanEvent;
+import jb.wrk.tribe.demo.entities.LoanApplication;
+import jb.wrk.tribe.demo.entities.LoanStatus;
+import jb.wrk.tribe.demo.repository.LoanApplicationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.loans.await.max=PT30S")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoanProcessStartTest {
+
+    private static final long PROCESS_INSTANCE_KEY = 2251799813685400L;
+    private static final long PROJECTED_PROCESS_INSTANCE_KEY = 2251799813685401L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private LoanProcessService loanProcessService;
+
+    @MockitoBean
+    private LoanEventHub loanEventHub;
+
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+
+    @BeforeEach
+    void setUp() {
+        ProcessInstanceEvent event = mock(ProcessInstanceEvent.class);
+        when(event.getProcessInstanceKey()).thenReturn(PROCESS_INSTANCE_KEY);
+        when(event.getBpmnProcessId()).thenReturn(LoanProcessService.PROCESS_ID);
+        when(event.getVersion()).thenReturn(1);
+        ZeebeClientFutureImpl<ProcessInstanceEvent, Object> started = new ZeebeClientFutureImpl<>();
+        started.complete(event);
+        when(loanProcessService.startLoanProcess(any(LoanProcessService.Variant.class), anyMap()))
+                .thenReturn(started);
+    }
+
+    @Test
+    void shouldAnswerWithDecisionWhenReachedWithinAwait() throws Exception {
+        // Given
+        when(loanEventHub.awaitDecision(PROCESS_INSTANCE_KEY, Duration.ofSeconds(5)))
+                .thenReturn(CompletableFuture.completedFuture(new LoanEvent(PROCESS_INSTANCE_KEY, null, "officer",
+                        LoanStatus.APPROVED, 742, Instant.now())));
+
+        // When / Then
+        dispatch(start().param("creditScore", "742").param("await", "PT5S"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.decided").value(true))
+                .andExpect(jsonPath("$.approvalStatus").value("APPROVED"))
+                .andExpect(jsonPath("$.creditScore").value(742));
+    }
+
+    @Test
+    void shouldAnswer202WithEventStreamWhenDecisionIsNotReachedInTime() throws Exception {
+        // Given
+        when(loanEventHub.awaitDecision(PROCESS_INSTANCE_KEY, Duration.ofMillis(200)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // When / Then
+        dispatch(start().param("await", "200ms"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/api/loans/" + PROCESS_INSTANCE_KEY + "/events"))
+                .andExpect(jsonPath("$.decided").value(false))
+                .andExpect(jsonPath("$.processInstanceKey").value(PROCESS_INSTANCE_KEY));
+    }
+
+    @Test
+    void shouldAnswerWithProjectedDecisionWhenMadeOnAnotherNode() throws Exception {
+        // Given: the decision was made by a worker on another node, so only its projection is visible here
+        ProcessInstanceEvent event = mock(ProcessInstanceEvent.class);
+        when(event.getProcessInstanceKey()).thenReturn(PROJECTED_PROCESS_INSTANCE_KEY);
+        ZeebeClientFutureImpl<ProcessInstanceEvent, Object> started = new ZeebeClientFutureImpl<>();
+        started.complete(event);
+        when(loanProcessService.startLoanProcess(any(LoanProcessService.Variant.class), anyMap()))
+                .thenReturn(started);
+        when(loanEventHub.awaitDecision(PROJECTED_PROCESS_INSTANCE_KEY, Duration.ofMillis(200)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        LoanApplication application = new LoanApplication();
+        application.setApplicantName("Test Applicant");
+        application.setApplicantEmail("projected@example.com");
+        application.setRequestedAmount(new BigDecimal("15000"));
+        application.setAnnualIncome(new BigDecimal("60000"));
+        application.setStatus(LoanStatus.APPROVED);
+        application.setCreditScore(731);
+        application.setProcessInstanceId(String.valueOf(PROJECTED_PROCESS_INSTANCE_KEY));
+        loanApplicationRepository.save(application);
+
+        // When / Then
+        dispatch(start().param("await", "200ms"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.decided").value(true))
+                .andExpect(jsonPath("$.approvalStatus").value("APPROVED"))
+                .andExpect(jsonPath("$.creditScore").value(731));
+    }
+
+    @Test
+    void shouldRejectInvalidOrTooLongAwaitWithoutStartingProcess() throws Exception {
+        dispatch(start().param("await", "soon"))
+                .andExpect(status().isBadRequest());
+        dispatch(start().param("await", "PT1M"))
+                .andExpect(status().isBadRequest());
+        dispatch(start().param("await", "-PT1S"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(loanProcessService);
+    }
+
+    @Test
+    void shouldStartRequestedVariantIgnoringCase() throws Exception {
+        mockMvc.perform(start().param("variant", "Parallel"))
+                .andExpect(status().isOk());
+        verify(loanProcessService).startLoanProcess(eq(LoanProcessService.Variant.PARALLEL), anyMap());
+    }
+
+    @Test
+    void shouldStartSequentialVariantByDefault() throws Exception {
+        mockMvc.perform(start())
+                .andExpect(status().isOk());
+        verify(loanProcessService).startLoanProcess(eq(LoanProcessService.Variant.SEQUENTIAL), anyMap());
+    }
+
+    @Test
+    void shouldRejectUnknownVariantWithoutStartingProcess() throws Exception {
+        mockMvc.perform(start().param("variant", "fastest"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Unknown process variant fastest"));
+        dispatch(start().param("variant", "fastest").param("await", "PT1S"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(loanProcessService);
+    }
+
+    private static MockHttpServletRequestBuilder start() {
+        return post("/api/loans/start").with(user("officer"));
+    }
+
+    private ResultActions dispatch(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
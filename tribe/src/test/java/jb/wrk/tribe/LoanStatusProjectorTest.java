@@ -0,0 +1,82 @@
+package jb.wrk.tribe;
+
+import jb.wrk.tribe.demo.components.LoanStatusProjector;
+import jb.wrk.tribe.demo.dto.LoanStatusUpdate;
+import jb.wrk.tribe.demo.entities.LoanApplication;
+import jb.wrk.tribe.demo.entities.LoanStatus;
+import jb.wrk.tribe.demo.repository.LoanApplicationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest(properties = "app.loans.projection.flush-interval=1h")
+@ActiveProfiles("test")
+class LoanStatusProjectorTest {
+
+    @Autowired
+    private LoanStatusProjector loanStatusProjector;
+
+    @MockitoSpyBean
+    private LoanApplicationRepository loanApplicationRepository;
+
+    @Test
+    void shouldWriteLatestCoalescedStateOnFlush() {
+        // Given
+        long id = saveApplication();
+
+        // When
+        loanStatusProjector.publish(new LoanStatusUpdate(id, LoanStatus.UNDER_REVIEW, 742, LocalDateTime.now()));
+        loanStatusProjector.publish(new LoanStatusUpdate(id, LoanStatus.APPROVED, null, LocalDateTime.now()));
+
+        // Then
+        assertThat(loanApplicationRepository.findById(id).orElseThrow().getStatus()).isEqualTo(LoanStatus.SUBMITTED);
+        reset(loanApplicationRepository);
+        loanStatusProjector.flush();
+        LoanApplication projected = loanApplicationRepository.findById(id).orElseThrow();
+        assertThat(projected.getStatus()).isEqualTo(LoanStatus.APPROVED);
+        assertThat(projected.getCreditScore()).isEqualTo(742);
+        assertThat(projected.getStatusChangedAt()).isNotNull();
+    }
+
+    @Test
+    void shouldRetryUpdatesOfFailedFlushWithoutTouchingProcessInstanceId() {
+        // Given
+        long id = saveApplication();
+        loanApplicationRepository.recordProcessInstance(id, "4711");
+        doThrow(new IllegalStateException("database unavailable"))
+                .when(loanApplicationRepository).projectStatus(anyLong(), any(), any(), any());
+
+        // When
+        loanStatusProjector.publish(new LoanStatusUpdate(id, LoanStatus.REJECTED, 512, LocalDateTime.now()));
+        loanStatusProjector.flush();
+
+        // Then
+        assertThat(loanApplicationRepository.findById(id).orElseThrow().getStatus()).isEqualTo(LoanStatus.SUBMITTED);
+        reset(loanApplicationRepository);
+        loanStatusProjector.flush();
+        LoanApplication projected = loanApplicationRepository.findById(id).orElseThrow();
+        assertThat(projected.getStatus()).isEqualTo(LoanStatus.REJECTED);
+        assertThat(projected.getCreditScore()).isEqualTo(512);
+        assertThat(projected.getProcessInstanceId()).isEqualTo("4711");
+    }
+
+    private long saveApplication() {
+        LoanApplication application = new LoanApplication();
+        application.setApplicantName("Test Applicant");
+        application.setApplicantEmail("applicant@example.com");
+        application.setRequestedAmount(new BigDecimal("15000"));
+        application.setAnnualIncome(new BigDecimal("60000"));
+        return loanApplicationRepository.save(application).getId();
+    }
+}
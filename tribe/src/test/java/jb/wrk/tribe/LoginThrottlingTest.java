@@ -0,0 +1,111 @@
+package jb.wrk.tribe;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jb.wrk.tribe.demo.components.PasswordCheckExecutor;
+import jb.wrk.tribe.demo.components.RefreshTokenService;
+import jb.wrk.tribe.demo.dto.LoginRequest;
+import jb.wrk.tribe.demo.entities.Role;
+import jb.wrk.tribe.demo.entities.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"app.auth.login.threads=1", "app.auth.login.queue-capacity=1",
+        "app.auth.login.retry-after-seconds=7"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoginThrottlingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PasswordCheckExecutor passwordCheckExecutor;
+
+    @MockitoBean
+    private AuthenticationManager authenticationManager;
+
+    @MockitoSpyBean
+    private RefreshTokenService refreshTokenService;
+
+    @Test
+    void shouldAnswer429WithRetryAfterWhenPasswordChecksAreSaturated() throws Exception {
+        // Given: one check running and one queued fill the pool
+        CountDownLatch release = new CountDownLatch(1);
+        when(authenticationManager.authenticate(any())).thenAnswer(invocation -> {
+            release.await();
+            return invocation.getArgument(0);
+        });
+        CompletableFuture<?> running = passwordCheckExecutor.authenticate(credentials());
+        CompletableFuture<?> queued = passwordCheckExecutor.authenticate(credentials());
+
+        try {
+            // When
+            MvcResult result = mockMvc.perform(post("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new LoginRequest("officer", "secret"))))
+                    .andReturn();
+
+            // Then
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "7"));
+        } finally {
+            release.countDown();
+            CompletableFuture.allOf(running, queued).join();
+        }
+    }
+
+    @Test
+    void shouldIssueRefreshTokenOffThePasswordCheckPool() throws Exception {
+        // Given
+        User user = new User("officer", "officer@example.com", "", Role.USER);
+        when(authenticationManager.authenticate(any()))
+                .thenReturn(UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+        AtomicReference<String> issuingThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            issuingThread.set(Thread.currentThread().getName());
+            return "refresh-token";
+        }).when(refreshTokenService).issue(any());
+
+        // When
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("officer", "secret"))))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        // Then
+        assertThat(issuingThread.get()).isNotNull().doesNotStartWith("password-check-");
+    }
+
+    private static UsernamePasswordAuthenticationToken credentials() {
+        return UsernamePasswordAuthenticationToken.unauthenticated("queued", "secret");
+    }
+}
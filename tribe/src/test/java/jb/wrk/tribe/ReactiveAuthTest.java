@@ -0,0 +1,92 @@
+package jb.wrk.tribe;
+
+import jb.wrk.tribe.demo.components.RefreshTokenService;
+import jb.wrk.tribe.demo.dto.LoginRequest;
+import jb.wrk.tribe.demo.dto.RefreshRequest;
+import jb.wrk.tribe.demo.entities.Role;
+import jb.wrk.tribe.demo.entities.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+@ActiveProfiles({"test", "reactive"})
+class ReactiveAuthTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private AuthenticationManager authenticationManager;
+
+    @MockitoSpyBean
+    private RefreshTokenService refreshTokenService;
+
+    private final User user = new User("officer", "officer@example.com", "", Role.USER);
+
+    @Test
+    void shouldIssueLoginTokensOffTheEventLoop() {
+        // Given
+        when(authenticationManager.authenticate(any()))
+                .thenReturn(UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+        AtomicReference<String> issuingThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            issuingThread.set(Thread.currentThread().getName());
+            return "refresh-token";
+        }).when(refreshTokenService).issue(any());
+
+        // When
+        webTestClient.post().uri("/api/auth/login")
+                .bodyValue(new LoginRequest("officer", "secret"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.refreshToken").isEqualTo("refresh-token");
+
+        // Then
+        assertThat(issuingThread.get()).isNotNull().startsWith("boundedElastic-");
+    }
+
+    @Test
+    void shouldRotateRefreshTokenOffTheEventLoop() {
+        // Given
+        AtomicReference<String> rotatingThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            rotatingThread.set(Thread.currentThread().getName());
+            return new RefreshTokenService.Rotation(user, "next-refresh-token");
+        }).when(refreshTokenService).rotate(anyString());
+
+        // When
+        webTestClient.post().uri("/api/auth/refresh")
+                .bodyValue(new RefreshRequest("refresh-token"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.refreshToken").isEqualTo("next-refresh-token");
+
+        // Then
+        assertThat(rotatingThread.get()).isNotNull().startsWith("boundedElastic-");
+    }
+
+    @Test
+    void shouldAnswer401ForUnknownRefreshToken() {
+        webTestClient.post().uri("/api/auth/refresh")
+                .bodyValue(new RefreshRequest("unknown"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+}
@@ -0,0 +1,150 @@
+package jb.wrk.tribe;
+
+import io.camunda.zeebe.client.api.response.ProcessInstanceEvent;
+import io.camunda.zeebe.client.impl.ZeebeClientFutureImpl;
+import jb.wrk.tribe.demo.components.LoanEventHub;
+import jb.wrk.tribe.demo.components.LoanProcessService;
+import jb.wrk.tribe.demo.dto.LoanEvent;
+import jb.wrk.tribe.demo.entities.LoanStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockUser;
+
+@SpringBootTest(properties = {"spring.main.web-application-type=reactive", "app.loans.await.max=PT30S"})
+@AutoConfigureWebTestClient
+@ActiveProfiles({"test", "reactive"})
+class ReactiveLoanEndpointsTest {
+
+    private static final long PROCESS_INSTANCE_KEY = 2251799813685600L;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private LoanProcessService loanProcessService;
+
+    @MockitoBean
+    private LoanEventHub loanEventHub;
+
+    private WebTestClient officer;
+
+    @BeforeEach
+    void setUp() {
+        ProcessInstanceEvent event = mock(ProcessInstanceEvent.class);
+        when(event.getProcessInstanceKey()).thenReturn(PROCESS_INSTANCE_KEY);
+        when(event.getBpmnProcessId()).thenReturn(LoanProcessService.PROCESS_ID);
+        when(event.getVersion()).thenReturn(1);
+        ZeebeClientFutureImpl<ProcessInstanceEvent, Object> started = new ZeebeClientFutureImpl<>();
+        started.complete(event);
+        when(loanProcessService.startLoanProcess(any(LoanProcessService.Variant.class), anyMap()))
+                .thenReturn(started);
+        officer = webTestClient.mutateWith(mockUser("officer"));
+    }
+
+    @Test
+    void shouldStartRequestedVariantWithClaimCheckedApplicationData() {
+        officer.post().uri("/api/loans/start?variant=parallel&creditScore=700")
+                .bodyValue(Map.of("applicationData", Map.of("applicantEmail", "applicant@example.com")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.processInstanceKey").isEqualTo(PROCESS_INSTANCE_KEY)
+                .jsonPath("$.variables.creditScore").isEqualTo(700)
+                .jsonPath("$.variables.applicationDataRef").isNotEmpty()
+                .jsonPath("$.variables.submittedBy").isEqualTo("officer");
+        verify(loanProcessService).startLoanProcess(eq(LoanProcessService.Variant.PARALLEL), anyMap());
+    }
+
+    @Test
+    void shouldReplayStartWithSameIdempotencyKey() {
+        // When
+        for (String replayed : new String[]{"false", "true"}) {
+            officer.post().uri("/api/loans/start?creditScore=700")
+                    .header("Idempotency-Key", "reactive-start-1")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().valueEquals("Idempotent-Replayed", replayed)
+                    .expectBody().jsonPath("$.processInstanceKey").isEqualTo(PROCESS_INSTANCE_KEY);
+        }
+
+        // Then
+        verify(loanProcessService, times(1)).startLoanProcess(any(LoanProcessService.Variant.class), anyMap());
+    }
+
+    @Test
+    void shouldAnswerWithDecisionOr202WithinAwait() {
+        // Given
+        when(loanEventHub.awaitDecision(PROCESS_INSTANCE_KEY, Duration.ofSeconds(5)))
+                .thenReturn(CompletableFuture.completedFuture(new LoanEvent(PROCESS_INSTANCE_KEY, null, "officer",
+                        LoanStatus.APPROVED, 742, Instant.now())));
+        when(loanEventHub.awaitDecision(PROCESS_INSTANCE_KEY, Duration.ofMillis(200)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // When / Then
+        officer.post().uri("/api/loans/start?creditScore=742&await=PT5S")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.decided").isEqualTo(true)
+                .jsonPath("$.approvalStatus").isEqualTo("APPROVED");
+        officer.post().uri("/api/loans/start?await=200ms")
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectHeader().valueEquals(HttpHeaders.LOCATION, "/api/loans/" + PROCESS_INSTANCE_KEY + "/events")
+                .expectBody().jsonPath("$.decided").isEqualTo(false);
+    }
+
+    @Test
+    void shouldRejectInvalidOptionsWithoutStartingProcess() {
+        officer.post().uri("/api/loans/start?variant=fastest")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Unknown process variant fastest");
+        officer.post().uri("/api/loans/start")
+                .header("Idempotency-Key", "k".repeat(256))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Idempotency-Key is too long");
+        officer.post().uri("/api/loans/start?await=PT1M")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("await must be between 0 and PT30S");
+        verifyNoInteractions(loanProcessService);
+    }
+
+    @Test
+    void shouldAnswer501ForServletOnlyEndpoints() {
+        officer.get().uri("/api/loans")
+                .exchange()
+                .expectStatus().isEqualTo(501);
+        officer.post().uri("/api/loans/start/batch")
+                .bodyValue(new Object[0])
+                .exchange()
+                .expectStatus().isEqualTo(501)
+                .expectBody().jsonPath("$.error").isEqualTo("Not available with the reactive profile");
+        officer.get().uri("/api/loans/42/documents")
+                .exchange()
+                .expectStatus().isEqualTo(501);
+    }
+}
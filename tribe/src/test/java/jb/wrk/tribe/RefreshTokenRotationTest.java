@@ -0,0 +1,132 @@
+package jb.wrk.tribe;
+
+import jakarta.transaction.Transactional;
+import jb.wrk.tribe.demo.components.RefreshTokenService;
+import jb.wrk.tribe.demo.entities.Role;
+import jb.wrk.tribe.demo.entities.User;
+import jb.wrk.tribe.demo.repository.RefreshTokenRepository;
+import jb.wrk.tribe.demo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class RefreshTokenRotationTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("refreshuser");
+        testUser.setEmail("refresh@example.com");
+        testUser.setPassword(passwordEncoder.encode("demo123"));
+        testUser.setRole(Role.USER);
+        userRepository.save(testUser);
+    }
+
+    @Test
+    void shouldRotateRefreshToken() {
+        // Given
+        String refreshToken = refreshTokenService.issue(testUser);
+
+        // When
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+
+        // Then
+        assertThat(rotation.user().getUsername()).isEqualTo("refreshuser");
+        assertThat(rotation.refreshToken()).isNotEqualTo(refreshToken);
+    }
+
+    @Test
+    void shouldRevokeAllTokensWhenRotatedTokenIsReused() {
+        // Given
+        String refreshToken = refreshTokenService.issue(testUser);
+        String successor = refreshTokenService.rotate(refreshToken).refreshToken();
+
+        // When / Then
+        assertThatThrownBy(() -> refreshTokenService.rotate(refreshToken))
+                .isInstanceOf(BadCredentialsException.class);
+        assertThatThrownBy(() -> refreshTokenService.rotate(successor))
+                .isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void shouldRejectRefreshTokenAfterSecurityVersionChange() {
+        // Given
+        String refreshToken = refreshTokenService.issue(testUser);
+        testUser.revokeTokens();
+        userRepository.save(testUser);
+
+        // When / Then
+        assertThatThrownBy(() -> refreshTokenService.rotate(refreshToken))
+                .isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    @org.springframework.transaction.annotation.Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldLetOnlyOneOfConcurrentRotationsSucceed() throws Exception {
+        // Given: committed data, so both rotations run in their own transactions
+        String refreshToken = refreshTokenService.issue(testUser);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // When
+            List<CompletableFuture<Boolean>> rotations = List.of(
+                    CompletableFuture.supplyAsync(() -> rotateAfter(start, refreshToken), executor),
+                    CompletableFuture.supplyAsync(() -> rotateAfter(start, refreshToken), executor));
+            start.countDown();
+
+            // Then
+            long succeeded = rotations.stream().filter(CompletableFuture::join).count();
+            assertThat(succeeded).isEqualTo(1);
+        } finally {
+            executor.shutdown();
+            refreshTokenRepository.deleteAll(refreshTokenRepository.findAll().stream()
+                    .filter(token -> token.getUser().getId().equals(testUser.getId()))
+                    .toList());
+            userRepository.delete(testUser);
+        }
+    }
+
+    private boolean rotateAfter(CountDownLatch start, String refreshToken) {
+        try {
+            start.await();
+            refreshTokenService.rotate(refreshToken);
+            return true;
+        } catch (BadCredentialsException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
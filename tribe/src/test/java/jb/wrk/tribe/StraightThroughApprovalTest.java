@@ -0,0 +1,177 @@
+package jb.wrk.tribe;
+
+import io.camunda.zeebe.client.ZeebeClient;
+import io.camunda.zeebe.client.api.command.CreateProcessInstanceCommandStep1;
+import io.camunda.zeebe.client.api.command.CreateProcessInstanceCommandStep1.CreateProcessInstanceCommandStep2;
+import io.camunda.zeebe.client.api.command.CreateProcessInstanceCommandStep1.CreateProcessInstanceCommandStep3;
+import io.camunda.zeebe.client.api.response.ProcessInstanceEvent;
+import io.camunda.zeebe.client.impl.ZeebeClientFutureImpl;
+import jb.wrk.tribe.demo.components.LoanDecisionRules;
+import jb.wrk.tribe.demo.components.LoanEventHub;
+import jb.wrk.tribe.demo.components.LoanProcessService;
+import jb.wrk.tribe.demo.components.StraightThroughApproval;
+import jb.wrk.tribe.demo.entities.LoanDocument;
+import jb.wrk.tribe.demo.entities.LoanStatus;
+import jb.wrk.tribe.demo.repository.LoanDocumentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "app.loans.fast-path.enabled=true")
+@ActiveProfiles("test")
+class StraightThroughApprovalTest {
+
+    private static final long PROCESS_INSTANCE_KEY = 2251799813685500L;
+
+    @Autowired
+    private LoanProcessService loanProcessService;
+
+    @Autowired
+    private StraightThroughApproval straightThroughApproval;
+
+    @Autowired
+    private LoanEventHub loanEventHub;
+
+    @Autowired
+    private LoanDocumentRepository loanDocumentRepository;
+
+    @MockitoBean
+    private ZeebeClient zeebeClient;
+
+    private CreateProcessInstanceCommandStep3 createCommand;
+
+    @BeforeEach
+    void setUp() {
+        CreateProcessInstanceCommandStep1 step1 = mock(CreateProcessInstanceCommandStep1.class);
+        CreateProcessInstanceCommandStep2 step2 = mock(CreateProcessInstanceCommandStep2.class);
+        createCommand = mock(CreateProcessInstanceCommandStep3.class);
+        ProcessInstanceEvent event = mock(ProcessInstanceEvent.class);
+        when(event.getProcessInstanceKey()).thenReturn(PROCESS_INSTANCE_KEY);
+        ZeebeClientFutureImpl<ProcessInstanceEvent, Object> started = new ZeebeClientFutureImpl<>();
+        started.complete(event);
+
+        when(zeebeClient.newCreateInstanceCommand()).thenReturn(step1);
+        when(step1.bpmnProcessId(anyString())).thenReturn(step2);
+        when(step2.latestVersion()).thenReturn(createCommand);
+        when(createCommand.variables(anyMap())).thenReturn(createCommand);
+        when(createCommand.startBeforeElement(anyString())).thenReturn(createCommand);
+        when(createCommand.send()).thenReturn(started);
+    }
+
+    @Test
+    void shouldApplyOnlyFromAutoApproveThreshold() {
+        assertThat(straightThroughApproval.appliesTo(Map.of("creditScore", LoanDecisionRules.AUTO_APPROVE_THRESHOLD))).isTrue();
+        assertThat(straightThroughApproval.appliesTo(Map.of("creditScore", LoanDecisionRules.AUTO_APPROVE_THRESHOLD - 1))).isFalse();
+        assertThat(straightThroughApproval.appliesTo(Map.of("applicantEmail", "applicant@example.com"))).isFalse();
+    }
+
+    @Test
+    void shouldStartDecidedInstanceBeforeEndEventForAutoApprovableScore() {
+        // Given
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("creditScore", 780);
+        variables.put("submittedBy", "officer");
+
+        // When
+        loanProcessService.startLoanProcess(LoanProcessService.Variant.PARALLEL, variables).join();
+
+        // Then
+        Map<String, Object> sent = sentVariables();
+        assertThat(sent).containsEntry("documentsValid", true)
+                .containsEntry("creditScore", 780)
+                .containsEntry("creditCheckComplete", true)
+                .containsEntry("approvalStatus", "APPROVED")
+                .containsEntry("decisionPath", "straight-through")
+                .containsEntry(LoanDecisionRules.THRESHOLD_VARIABLE, LoanDecisionRules.AUTO_APPROVE_THRESHOLD)
+                .containsKey("creditCheckTimestamp");
+        verify(createCommand).startBeforeElement("EndEvent_1");
+        assertThat(loanEventHub.latest(PROCESS_INSTANCE_KEY)).hasValueSatisfying(event -> {
+            assertThat(event.status()).isEqualTo(LoanStatus.APPROVED);
+            assertThat(event.submittedBy()).isEqualTo("officer");
+        });
+    }
+
+    @Test
+    void shouldStartRegularInstanceBelowThreshold() {
+        // Given
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("creditScore", LoanDecisionRules.AUTO_APPROVE_THRESHOLD - 1);
+
+        // When
+        loanProcessService.startLoanProcess(LoanProcessService.Variant.SEQUENTIAL, variables).join();
+
+        // Then
+        assertThat(sentVariables()).containsEntry(LoanDecisionRules.THRESHOLD_VARIABLE, LoanDecisionRules.AUTO_APPROVE_THRESHOLD)
+                .doesNotContainKeys("approvalStatus", "decisionPath");
+        verify(createCommand, never()).startBeforeElement(anyString());
+    }
+
+    @Test
+    void shouldTakeFastPathOnlyWhenUploadedDocumentsPassed() {
+        // Given
+        storeCheckedDocument("doc-passed", 9101L, "");
+        storeCheckedDocument("doc-failed", 9102L, "Unsupported content type");
+        loanDocumentRepository.save(new LoanDocument("doc-pending", 9103L, "/tmp/doc-pending", "id.pdf", "application/pdf", 10));
+
+        // When / Then
+        assertThat(straightThroughApproval.appliesTo(autoApprovable(9101L))).isTrue();
+        assertThat(straightThroughApproval.appliesTo(autoApprovable(9102L))).isFalse();
+        assertThat(straightThroughApproval.appliesTo(autoApprovable(9103L))).isFalse();
+    }
+
+    @Test
+    void shouldTakeDocumentsValidFromSavedChecks() {
+        // Given
+        storeCheckedDocument("doc-valid", 9104L, "");
+
+        // When
+        loanProcessService.startLoanProcess(LoanProcessService.Variant.SEQUENTIAL, autoApprovable(9104L)).join();
+
+        // Then
+        assertThat(sentVariables()).containsEntry("documentsValid", true)
+                .containsEntry("approvalStatus", "APPROVED")
+                .containsKeys("validationTimestamp", "documentReportRef");
+    }
+
+    @Test
+    void shouldKeepExplicitThreshold() {
+        Map<String, Object> variables = new HashMap<>(Map.of(LoanDecisionRules.THRESHOLD_VARIABLE, 650));
+
+        assertThat(LoanDecisionRules.withThreshold(variables)).containsEntry(LoanDecisionRules.THRESHOLD_VARIABLE, 650);
+    }
+
+    private void storeCheckedDocument(String documentId, long loanApplicationId, String problems) {
+        loanDocumentRepository.save(new LoanDocument(documentId, loanApplicationId, "/tmp/" + documentId, "id.pdf", "application/pdf", 10));
+        loanDocumentRepository.recordCheck(documentId, "sha", problems, Instant.now());
+    }
+
+    private static Map<String, Object> autoApprovable(long loanApplicationId) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("creditScore", 780);
+        variables.put("loanApplicationId", loanApplicationId);
+        return variables;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> sentVariables() {
+        ArgumentCaptor<Map<String, Object>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(createCommand).variables(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,58 @@
+package jb.wrk.tribe;
+
+import jb.wrk.tribe.demo.components.UserSecurityStateCache;
+import jb.wrk.tribe.demo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserSecurityStateCacheTest {
+
+    @Autowired
+    private UserSecurityStateCache userSecurityStateCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoSpyBean
+    private UserRepository userRepository;
+
+    @Test
+    void shouldCacheUnknownUsersAsRejected() {
+        // Given
+        String deleted = "deleted-" + UUID.randomUUID();
+
+        // When
+        boolean first = userSecurityStateCache.accepts(deleted, 0);
+        boolean second = userSecurityStateCache.accepts(deleted, 0);
+
+        // Then
+        assertThat(first).isFalse();
+        assertThat(second).isFalse();
+        assertThat(userSecurityStateCache.acceptsIfCached(deleted, 0)).isFalse();
+        verify(userRepository, times(1)).findSecurityStateByUsername(deleted);
+    }
+
+    @Test
+    void shouldDefaultSecurityVersionForRowsInsertedWithoutIt() {
+        // Given: inserted like initial-users.sql, without security_version
+        String username = "seeded-" + UUID.randomUUID();
+        jdbcTemplate.update("insert into users (username, email, password, role, enabled, account_non_expired, "
+                        + "account_non_locked, credentials_non_expired) values (?, ?, 'x', 'USER', true, true, true, true)",
+                username, username + "@example.com");
+
+        // When / Then
+        assertThat(userSecurityStateCache.accepts(username, 0)).isTrue();
+    }
+}